@@ -30,6 +30,7 @@ public class IrregularActivity extends Activity {
                 row.getAspectRatio());
         gridView.setFocusZoomFactor(FocusHighlightHelper.ZOOM_FACTOR_SMALL);
         gridView.setAdapter(adapter);
+        adapter.beginBatch();
         for (itemPosition position : row.getItems()) {
             RowItem rowItem = new RowItem();
             rowItem.setX(position.getX());
@@ -38,6 +39,7 @@ public class IrregularActivity extends Activity {
             rowItem.setHeight(position.getHeight());
             adapter.add(rowItem);
         }
+        adapter.endBatch();
 
     }
 }
@@ -31,6 +31,7 @@ public class IrregularVerticalActivity extends Activity {
         gridView.setFocusZoomFactor(FocusHighlightHelper.ZOOM_FACTOR_SMALL);
         gridView.setAdapter(adapter);
 
+        adapter.beginBatch();
         for (itemPosition position : row.getItems()) {
             RowItem rowItem = new RowItem();
             rowItem.setX(position.getX());
@@ -39,5 +40,6 @@ public class IrregularVerticalActivity extends Activity {
             rowItem.setHeight(position.getHeight());
             adapter.add(rowItem);
         }
+        adapter.endBatch();
     }
 }
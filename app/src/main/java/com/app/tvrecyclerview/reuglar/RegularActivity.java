@@ -16,6 +16,7 @@ import app.com.tvrecyclerview.FocusHighlightHelper;
 import app.com.tvrecyclerview.GridObjectAdapter;
 import app.com.tvrecyclerview.HorizontalGridView;
 import app.com.tvrecyclerview.RowItem;
+import app.com.tvrecyclerview.SharedViewPool;
 
 
 public class RegularActivity extends Activity {
@@ -24,25 +25,36 @@ public class RegularActivity extends Activity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_regular);
 
+        // both rows present their items with the same presenter and reuse each other's views
+        RegularPresenter presenter = new RegularPresenter(this);
+        SharedViewPool viewPool = new SharedViewPool();
+        viewPool.setMaxRecycledViews(presenter, 10);
+        presenter.setPrewarmCount(4);
+
         HorizontalGridView gridView = findViewById(R.id.id_grid_first);
         gridView.addItemDecoration(new SpaceItemDecoration());
         gridView.setNumRows(2);
-        GridObjectAdapter adapter = new GridObjectAdapter(new RegularPresenter(this));
+        gridView.setSharedViewPool(viewPool);
+        GridObjectAdapter adapter = new GridObjectAdapter(presenter);
         gridView.setFocusZoomFactor(FocusHighlightHelper.ZOOM_FACTOR_SMALL);
         gridView.setAdapter(adapter);
+        adapter.beginBatch();
         for (int i = 0; i < 10; i++) {
             adapter.add(new RowItem());
         }
+        adapter.endBatch();
 
 
         HorizontalGridView gridView1 = findViewById(R.id.id_grid_second);
         String json1 = Utils.inputStreamToString(getResources().openRawResource(R.raw.horizonal_regular));
         Row row1 = new Gson().fromJson(json1, Row.class);
-        GridObjectAdapter adapter1 = new GridObjectAdapter(new RegularPresenter(this),
+        GridObjectAdapter adapter1 = new GridObjectAdapter(presenter,
                 row1.getRowSpacing(), row1.getColumnSpacing(), row1.getColumns(),
                 row1.getAspectRatio());
+        gridView1.setSharedViewPool(viewPool);
         gridView1.setFocusZoomFactor(FocusHighlightHelper.ZOOM_FACTOR_SMALL);
         gridView1.setAdapter(adapter1);
+        adapter1.beginBatch();
         for (itemPosition position : row1.getItems()) {
             RowItem rowItem = new RowItem();
             rowItem.setX(position.getX());
@@ -51,6 +63,7 @@ public class RegularActivity extends Activity {
             rowItem.setHeight(position.getHeight());
             adapter1.add(rowItem);
         }
+        adapter1.endBatch();
     }
 
     private class SpaceItemDecoration extends RecyclerView.ItemDecoration {
@@ -27,9 +27,11 @@ public class RegularVerticalActivity extends Activity {
         GridObjectAdapter adapter = new GridObjectAdapter(new RegularVerticalPresenter(this));
         gridView.setFocusZoomFactor(FocusHighlightHelper.ZOOM_FACTOR_SMALL);
         gridView.setAdapter(adapter);
+        adapter.beginBatch();
         for (int i = 0; i < 15; i++) {
             adapter.add(new RowItem());
         }
+        adapter.endBatch();
     }
 
     private class SpaceItemDecoration extends RecyclerView.ItemDecoration {
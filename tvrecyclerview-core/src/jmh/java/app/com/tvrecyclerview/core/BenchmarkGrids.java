@@ -0,0 +1,96 @@
+package app.com.tvrecyclerview.core;
+
+/**
+ * Synthetic grids shared by the benchmarks, laid out in a horizontal grid of
+ * two rows on a 1920x1080 screen.
+ */
+final class BenchmarkGrids {
+
+    static final String REGULAR = "regular";
+
+    static final String IRREGULAR = "irregular";
+
+    static final int VIEW_WIDTH = 1920;
+
+    static final int VIEW_HEIGHT = 1080;
+
+    static final int ROWS = 2;
+
+    static final int ITEM_SIZE = 300;
+
+    static final int INSET = 10;
+
+    static final int PADDING = 48;
+
+    private BenchmarkGrids() {
+    }
+
+    static GridFrameSpec createSpec() {
+        float cellWidth = GridGeometry.getCellWidth(VIEW_WIDTH, 6, INSET * 2,
+                PADDING, PADDING);
+        float cellHeight = GridGeometry.getCellHeight(cellWidth, 16f / 9f);
+        return new GridFrameSpec(cellWidth, cellHeight, INSET * 2, INSET * 2,
+                INSET, INSET, INSET, INSET, 0, 0, 0, 0, PADDING, PADDING, 0);
+    }
+
+    /**
+     * Returns the spans of an irregular grid repeating one 2x2 item
+     * followed by two 1x1 items stacked in the next column.
+     */
+    static int[] createIrregularSpans(int itemCount) {
+        int[] spans = new int[itemCount * 4];
+        for (int i = 0; i < itemCount; i++) {
+            int group = i / 3;
+            int x = group * 3;
+            int offset = i * 4;
+            switch (i % 3) {
+                case 0:
+                    spans[offset] = x;
+                    spans[offset + 1] = 0;
+                    spans[offset + 2] = 2;
+                    spans[offset + 3] = 2;
+                    break;
+                default:
+                    spans[offset] = x + 2;
+                    spans[offset + 1] = i % 3 - 1;
+                    spans[offset + 2] = 1;
+                    spans[offset + 3] = 1;
+                    break;
+            }
+        }
+        return spans;
+    }
+
+    /**
+     * Computes the frames of all items into the store.
+     * @return the end of the last item in primary direction
+     */
+    static int computeRegularFrames(int itemCount, ItemFrameStore frames) {
+        int totalSize = 0;
+        for (int i = 0; i < itemCount; i++) {
+            int left = GridGeometry.getRegularFrameStart(
+                    GridGeometry.getRegularColumnIndex(i, ROWS, true),
+                    ITEM_SIZE, INSET, INSET, PADDING);
+            int top = GridGeometry.getRegularFrameStart(
+                    GridGeometry.getRegularRowIndex(i, ROWS, true),
+                    ITEM_SIZE, INSET, INSET, PADDING);
+            int right = left + ITEM_SIZE + INSET * 2;
+            frames.put(i, left, top, right, top + ITEM_SIZE + INSET * 2);
+            totalSize = Math.max(totalSize, right);
+        }
+        return totalSize;
+    }
+
+    /**
+     * Returns the frames of all items of the given layout.
+     */
+    static ItemFrameStore createFrames(String layout, int itemCount) {
+        if (IRREGULAR.equals(layout)) {
+            return FramePlan.compute(createIrregularSpans(itemCount), itemCount,
+                    createSpec(), true).getFrames();
+        }
+        ItemFrameStore frames = new ItemFrameStore(true);
+        computeRegularFrames(itemCount, frames);
+        return frames;
+    }
+}
@@ -0,0 +1,50 @@
+package app.com.tvrecyclerview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures computing the frames of every item, which is what the layout planner
+ * does off the main thread for irregular grids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FrameComputationBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int itemCount;
+
+    @Param({BenchmarkGrids.REGULAR, BenchmarkGrids.IRREGULAR})
+    public String layout;
+
+    private int[] mSpans;
+
+    private GridFrameSpec mSpec;
+
+    private ItemFrameStore mFrames;
+
+    @Setup
+    public void setUp() {
+        mSpans = BenchmarkGrids.createIrregularSpans(itemCount);
+        mSpec = BenchmarkGrids.createSpec();
+        mFrames = new ItemFrameStore(true);
+    }
+
+    @Benchmark
+    public int computeAllFrames() {
+        if (BenchmarkGrids.IRREGULAR.equals(layout)) {
+            return FramePlan.compute(mSpans, itemCount, mSpec, true).getTotalSize();
+        }
+        mFrames.clear();
+        return BenchmarkGrids.computeRegularFrames(itemCount, mFrames);
+    }
+}
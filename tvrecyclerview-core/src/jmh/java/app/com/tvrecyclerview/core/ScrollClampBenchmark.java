@@ -0,0 +1,57 @@
+package app.com.tvrecyclerview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the clamping done by every scroll call, scrolling back and forth
+ * across the whole content so both edges are hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScrollClampBenchmark {
+
+    private static final int SCROLL_STEP = 120;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int itemCount;
+
+    @Param({BenchmarkGrids.REGULAR, BenchmarkGrids.IRREGULAR})
+    public String layout;
+
+    private ItemFrameStore mFrames;
+
+    private int mMaxScrollDistance;
+
+    private int mOffset;
+
+    private int mDelta = SCROLL_STEP;
+
+    @Setup
+    public void setUp() {
+        mFrames = BenchmarkGrids.createFrames(layout, itemCount);
+        mMaxScrollDistance = GridGeometry.getMaxScrollDistance(mFrames.getMaxEnd(),
+                BenchmarkGrids.VIEW_WIDTH);
+    }
+
+    @Benchmark
+    public int clampScroll() {
+        int realOffset = GridGeometry.clampScroll(mOffset, mDelta, mMaxScrollDistance,
+                mFrames.size() >= itemCount);
+        mOffset += realOffset;
+        if (realOffset != mDelta) {
+            // reached an edge, turn around
+            mDelta = -mDelta;
+        }
+        return mOffset;
+    }
+}
@@ -0,0 +1,60 @@
+package app.com.tvrecyclerview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the items inside the viewport, done by every scroll step,
+ * while the viewport moves across the whole content.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ViewportQueryBenchmark {
+
+    /**
+     * The distance the viewport moves between two queries.
+     */
+    private static final int SCROLL_STEP = 37;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int itemCount;
+
+    @Param({BenchmarkGrids.REGULAR, BenchmarkGrids.IRREGULAR})
+    public String layout;
+
+    private ItemFrameStore mFrames;
+
+    private final PositionList mPositions = new PositionList();
+
+    private int mMaxOffset;
+
+    private int mOffset;
+
+    @Setup
+    public void setUp() {
+        mFrames = BenchmarkGrids.createFrames(layout, itemCount);
+        mMaxOffset = GridGeometry.getMaxScrollDistance(mFrames.getMaxEnd(),
+                BenchmarkGrids.VIEW_WIDTH);
+        mOffset = 0;
+    }
+
+    @Benchmark
+    public int queryViewport() {
+        mOffset += SCROLL_STEP;
+        if (mOffset > mMaxOffset) {
+            mOffset = 0;
+        }
+        mFrames.query(mOffset, 0, mOffset + BenchmarkGrids.VIEW_WIDTH,
+                BenchmarkGrids.VIEW_HEIGHT, mPositions);
+        return mPositions.size();
+    }
+}
@@ -0,0 +1,161 @@
+package app.com.tvrecyclerview.core;
+
+/**
+ * Finds the item to focus next from the saved frames of an irregular grid, without
+ * the views of the items. The frames are searched through the index of the store in
+ * growing windows, so a move only looks as far as the nearest item in its beam.
+ *
+ * <p>Like the framework focus search, an item overlapping the focused one across the
+ * direction (in its beam) wins over the items around it, the nearest one first. Items
+ * outside the beam are ranked by a distance weighting the direction of the move.</p>
+ */
+public final class FocusNavigator {
+
+    public static final int LEFT = 0;
+    public static final int UP = 1;
+    public static final int RIGHT = 2;
+    public static final int DOWN = 3;
+
+    private static final int NO_POSITION = -1;
+
+    /**
+     * Weight of the distance along the move, same as the framework focus search.
+     */
+    private static final long MAJOR_WEIGHT = 13;
+
+    private final PositionList mCandidates = new PositionList();
+
+    private int mBestPosition;
+    private boolean mBestInBeam;
+    private long mBestMajor;
+    private long mBestScore;
+
+    /**
+     * Returns the position of the item to focus when moving from the given one, or -1
+     * if there is no item in the direction.
+     * @param frames frames of all items, in the primary direction of the store
+     * @param horizontal true if the primary direction of the store is horizontal
+     * @param contentEnd end of the last item in primary direction
+     */
+    public int findNeighbor(ItemFrameStore frames, boolean horizontal, int position,
+                            int direction, int contentEnd) {
+        if (!frames.contains(position)) {
+            return NO_POSITION;
+        }
+        final int left = frames.getLeft(position);
+        final int top = frames.getTop(position);
+        final int right = frames.getRight(position);
+        final int bottom = frames.getBottom(position);
+        final boolean primaryMove = horizontal == (direction == LEFT || direction == RIGHT);
+        final boolean forward = direction == RIGHT || direction == DOWN;
+        final int start = horizontal ? left : top;
+        final int end = horizontal ? right : bottom;
+        int window = Math.max(end - start, 1);
+        mBestPosition = NO_POSITION;
+        mBestInBeam = false;
+        while (true) {
+            // the window covers the focused item and grows in the direction of the move,
+            // or on both sides when moving across the primary direction
+            int windowStart;
+            int windowEnd;
+            boolean coversContent;
+            if (!primaryMove) {
+                windowStart = start - window + (end - start);
+                windowEnd = end + window - (end - start);
+                coversContent = windowStart <= 0 && windowEnd >= contentEnd;
+            } else if (forward) {
+                windowStart = start;
+                windowEnd = end + window;
+                coversContent = windowEnd >= contentEnd;
+            } else {
+                windowStart = start - window;
+                windowEnd = end;
+                coversContent = windowStart <= 0;
+            }
+            if (horizontal) {
+                frames.query(windowStart, Integer.MIN_VALUE / 2, windowEnd,
+                        Integer.MAX_VALUE / 2, mCandidates);
+            } else {
+                frames.query(Integer.MIN_VALUE / 2, windowStart, Integer.MAX_VALUE / 2,
+                        windowEnd, mCandidates);
+            }
+            for (int i = 0, size = mCandidates.size(); i < size; i++) {
+                int candidate = mCandidates.get(i);
+                if (candidate != position) {
+                    rank(frames, candidate, direction, left, top, right, bottom);
+                }
+            }
+            // a farther window only holds items farther in the beam, which lose to the
+            // best one in the beam. Along the primary direction an item in the beam wins
+            // however far it is, so the search goes on until one is found.
+            if (mBestInBeam || coversContent
+                    || mBestPosition != NO_POSITION && !primaryMove) {
+                break;
+            }
+            window *= 2;
+        }
+        return mBestPosition;
+    }
+
+    private void rank(ItemFrameStore frames, int candidate, int direction,
+                      int left, int top, int right, int bottom) {
+        final int cLeft = frames.getLeft(candidate);
+        final int cTop = frames.getTop(candidate);
+        final int cRight = frames.getRight(candidate);
+        final int cBottom = frames.getBottom(candidate);
+        long major;
+        long minor;
+        boolean inBeam;
+        switch (direction) {
+            case LEFT:
+                if (!((right > cRight || left >= cRight) && left > cLeft)) {
+                    return;
+                }
+                major = Math.max(0, left - cRight);
+                minor = Math.abs((top + bottom) - (cTop + cBottom)) / 2;
+                inBeam = cTop < bottom && cBottom > top;
+                break;
+            case RIGHT:
+                if (!((left < cLeft || right <= cLeft) && right < cRight)) {
+                    return;
+                }
+                major = Math.max(0, cLeft - right);
+                minor = Math.abs((top + bottom) - (cTop + cBottom)) / 2;
+                inBeam = cTop < bottom && cBottom > top;
+                break;
+            case UP:
+                if (!((bottom > cBottom || top >= cBottom) && top > cTop)) {
+                    return;
+                }
+                major = Math.max(0, top - cBottom);
+                minor = Math.abs((left + right) - (cLeft + cRight)) / 2;
+                inBeam = cLeft < right && cRight > left;
+                break;
+            case DOWN:
+            default:
+                if (!((top < cTop || bottom <= cTop) && bottom < cBottom)) {
+                    return;
+                }
+                major = Math.max(0, cTop - bottom);
+                minor = Math.abs((left + right) - (cLeft + cRight)) / 2;
+                inBeam = cLeft < right && cRight > left;
+                break;
+        }
+        long score = MAJOR_WEIGHT * major * major + minor * minor;
+        if (mBestPosition != NO_POSITION) {
+            if (mBestInBeam && !inBeam) {
+                return;
+            }
+            if (mBestInBeam == inBeam) {
+                if (inBeam ? major > mBestMajor || major == mBestMajor && score >= mBestScore
+                        : score >= mBestScore) {
+                    return;
+                }
+            }
+        }
+        mBestPosition = candidate;
+        mBestInBeam = inBeam;
+        mBestMajor = major;
+        mBestScore = score;
+    }
+}
@@ -0,0 +1,74 @@
+package app.com.tvrecyclerview.core;
+
+/**
+ * The frames of all items of an irregular grid, computed off the main thread.
+ * A plan is never modified after it is built, it is only valid for the spec,
+ * item count and orientation it was built with.
+ */
+public final class FramePlan {
+
+    private final GridFrameSpec mSpec;
+
+    private final int mItemCount;
+
+    private final boolean mHorizontal;
+
+    private final ItemFrameStore mFrames;
+
+    /**
+     * The end of the last item in primary direction.
+     */
+    private final int mTotalSize;
+
+    private FramePlan(GridFrameSpec spec, int itemCount, boolean horizontal,
+                      ItemFrameStore frames, int totalSize) {
+        mSpec = spec;
+        mItemCount = itemCount;
+        mHorizontal = horizontal;
+        mFrames = frames;
+        mTotalSize = totalSize;
+    }
+
+    /**
+     * Computes the frames of all items.
+     * @param spans x, y, width and height of every item, four ints per item
+     */
+    public static FramePlan compute(int[] spans, int itemCount, GridFrameSpec spec,
+                                    boolean horizontal) {
+        ItemFrameStore frames = new ItemFrameStore(horizontal);
+        int totalSize = 0;
+        for (int i = 0; i < itemCount; i++) {
+            int offset = i * 4;
+            int left = spec.getFrameLeft(spans[offset]);
+            int top = spec.getFrameTop(spans[offset + 1]);
+            int right = left + spec.getFrameWidth(spans[offset + 2]);
+            int bottom = top + spec.getFrameHeight(spans[offset + 3]);
+            frames.put(i, left, top, right, bottom);
+            totalSize = Math.max(totalSize, horizontal ? right : bottom);
+        }
+        return new FramePlan(spec, itemCount, horizontal, frames, totalSize);
+    }
+
+    public boolean matches(GridFrameSpec spec, int itemCount, boolean horizontal) {
+        return mSpec.equals(spec) && mItemCount == itemCount && mHorizontal == horizontal;
+    }
+
+    public GridFrameSpec getSpec() {
+        return mSpec;
+    }
+
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    /**
+     * Returns the frames, callers must not modify them.
+     */
+    public ItemFrameStore getFrames() {
+        return mFrames;
+    }
+
+    public int getTotalSize() {
+        return mTotalSize;
+    }
+}
@@ -0,0 +1,134 @@
+package app.com.tvrecyclerview.core;
+
+/**
+ * Everything the frame of an irregular item depends on besides its own
+ * {@code RowItem} spans: the base cell size, spacing, decoration insets,
+ * child margins, padding and the extra height a child adds when measured.
+ * Given a spec, the frame of an item is a pure function of its spans, so it
+ * can be computed on any thread.
+ */
+public final class GridFrameSpec {
+
+    private final float mCellWidth;
+    private final float mCellHeight;
+    private final int mColumnSpacing;
+    private final int mRowSpacing;
+    private final int mInsetLeft;
+    private final int mInsetTop;
+    private final int mInsetRight;
+    private final int mInsetBottom;
+    private final int mMarginLeft;
+    private final int mMarginTop;
+    private final int mMarginRight;
+    private final int mMarginBottom;
+    private final int mPaddingLeft;
+    private final int mPaddingTop;
+    private final int mExtraHeight;
+
+    public GridFrameSpec(float cellWidth, float cellHeight, int columnSpacing, int rowSpacing,
+                  int insetLeft, int insetTop, int insetRight, int insetBottom,
+                  int marginLeft, int marginTop, int marginRight, int marginBottom,
+                  int paddingLeft, int paddingTop, int extraHeight) {
+        mCellWidth = cellWidth;
+        mCellHeight = cellHeight;
+        mColumnSpacing = columnSpacing;
+        mRowSpacing = rowSpacing;
+        mInsetLeft = insetLeft;
+        mInsetTop = insetTop;
+        mInsetRight = insetRight;
+        mInsetBottom = insetBottom;
+        mMarginLeft = marginLeft;
+        mMarginTop = marginTop;
+        mMarginRight = marginRight;
+        mMarginBottom = marginBottom;
+        mPaddingLeft = paddingLeft;
+        mPaddingTop = paddingTop;
+        mExtraHeight = extraHeight;
+    }
+
+    /**
+     * Returns the width a child is measured with.
+     */
+    public int getItemWidth(int columnSize) {
+        return GridGeometry.getSpanLength(columnSize, mCellWidth,
+                mInsetLeft + mInsetRight + mColumnSpacing);
+    }
+
+    /**
+     * Returns the height a child is measured with.
+     */
+    public int getItemHeight(int rowSize) {
+        return GridGeometry.getSpanLength(rowSize, mCellHeight,
+                mInsetBottom + mInsetTop + mRowSpacing);
+    }
+
+    public int getFrameLeft(int columnIndex) {
+        int horizontalPadding = mInsetLeft + mInsetRight + mMarginLeft + mMarginRight
+                + mColumnSpacing;
+        return GridGeometry.getIrregularFrameStart(columnIndex, mCellWidth, horizontalPadding,
+                mInsetLeft, mPaddingLeft, 0);
+    }
+
+    public int getFrameTop(int rowIndex) {
+        int verticalPadding = mInsetTop + mInsetBottom + mMarginTop + mMarginBottom
+                + mRowSpacing;
+        return GridGeometry.getIrregularFrameStart(rowIndex, mCellHeight, verticalPadding,
+                mInsetTop, mPaddingTop, mExtraHeight);
+    }
+
+    public int getFrameWidth(int columnSize) {
+        return getItemWidth(columnSize) + mInsetLeft + mInsetRight
+                + mMarginLeft + mMarginRight;
+    }
+
+    public int getFrameHeight(int rowSize) {
+        return getItemHeight(rowSize) + mExtraHeight + mInsetTop + mInsetBottom
+                + mMarginTop + mMarginBottom;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GridFrameSpec)) {
+            return false;
+        }
+        GridFrameSpec that = (GridFrameSpec) o;
+        return Float.compare(mCellWidth, that.mCellWidth) == 0
+                && Float.compare(mCellHeight, that.mCellHeight) == 0
+                && mColumnSpacing == that.mColumnSpacing
+                && mRowSpacing == that.mRowSpacing
+                && mInsetLeft == that.mInsetLeft
+                && mInsetTop == that.mInsetTop
+                && mInsetRight == that.mInsetRight
+                && mInsetBottom == that.mInsetBottom
+                && mMarginLeft == that.mMarginLeft
+                && mMarginTop == that.mMarginTop
+                && mMarginRight == that.mMarginRight
+                && mMarginBottom == that.mMarginBottom
+                && mPaddingLeft == that.mPaddingLeft
+                && mPaddingTop == that.mPaddingTop
+                && mExtraHeight == that.mExtraHeight;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(mCellWidth);
+        result = 31 * result + Float.floatToIntBits(mCellHeight);
+        result = 31 * result + mColumnSpacing;
+        result = 31 * result + mRowSpacing;
+        result = 31 * result + mInsetLeft;
+        result = 31 * result + mInsetTop;
+        result = 31 * result + mInsetRight;
+        result = 31 * result + mInsetBottom;
+        result = 31 * result + mMarginLeft;
+        result = 31 * result + mMarginTop;
+        result = 31 * result + mMarginRight;
+        result = 31 * result + mMarginBottom;
+        result = 31 * result + mPaddingLeft;
+        result = 31 * result + mPaddingTop;
+        result = 31 * result + mExtraHeight;
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package app.com.tvrecyclerview.core;
+
+/**
+ * The span and scroll math of the grid layout, kept free of Android types so it
+ * can run and be measured on a plain JVM.
+ */
+public final class GridGeometry {
+
+    private GridGeometry() {
+    }
+
+    /**
+     * Returns the base cell width of an irregular grid.
+     * @param width width of the grid view
+     * @param columns number of cells across the width
+     */
+    public static float getCellWidth(int width, int columns, int columnSpacing,
+                                     int paddingLeft, int paddingRight) {
+        return (width - (columns - 1) * columnSpacing - paddingLeft - paddingRight) / columns;
+    }
+
+    public static float getCellHeight(float cellWidth, float aspectRatio) {
+        return cellWidth / aspectRatio;
+    }
+
+    /**
+     * Returns the size of an item covering spanSize cells.
+     * @param gap the space between two cells
+     */
+    public static int getSpanLength(int spanSize, float cellLength, int gap) {
+        return (int) (spanSize * cellLength + (spanSize - 1) * gap);
+    }
+
+    /**
+     * Returns the start edge of the frame of an irregular item.
+     * @param index index of the first cell the item covers
+     * @param gap the space a cell takes besides its base length
+     * @param extraPerIndex the extra length every cell before the item adds
+     */
+    public static int getIrregularFrameStart(int index, float cellLength, int gap,
+                                             int insetStart, int paddingStart,
+                                             int extraPerIndex) {
+        return (int) ((cellLength + gap) * index - insetStart + paddingStart
+                + extraPerIndex * index);
+    }
+
+    /**
+     * Returns the column index of an item of a regular grid.
+     * @param numRowOrColumn rows of a horizontal grid or columns of a vertical grid
+     */
+    public static int getRegularColumnIndex(int position, int numRowOrColumn,
+                                            boolean horizontal) {
+        return horizontal ? position / numRowOrColumn : position % numRowOrColumn;
+    }
+
+    /**
+     * Returns the row index of an item of a regular grid.
+     * @param numRowOrColumn rows of a horizontal grid or columns of a vertical grid
+     */
+    public static int getRegularRowIndex(int position, int numRowOrColumn,
+                                         boolean horizontal) {
+        return horizontal ? position % numRowOrColumn : position / numRowOrColumn;
+    }
+
+    /**
+     * Returns the start edge of the frame of a regular item.
+     */
+    public static int getRegularFrameStart(int index, int measuredSize, int insetStart,
+                                           int insetEnd, int paddingStart) {
+        return index * (measuredSize + insetStart + insetEnd) + paddingStart;
+    }
+
+    /**
+     * Returns the start edge of the frame of a regular item from the frame of another
+     * item, all items of a regular grid having the same size.
+     * @param pitch distance between the start edges of two adjacent frames
+     */
+    public static int getRegularFrameStart(int index, int referenceIndex, int referenceStart,
+                                           int pitch) {
+        return referenceStart + (index - referenceIndex) * pitch;
+    }
+
+    public static int getMaxScrollDistance(int totalSize, int clientSize) {
+        int scrollDistance = totalSize - clientSize;
+        return scrollDistance > 0 ? scrollDistance : 0;
+    }
+
+    /**
+     * Returns the distance a scroll can really move.
+     * @param offset current scroll offset
+     * @param delta requested distance
+     * @param bounded whether all items are laid out, so maxScrollDistance bounds the end
+     */
+    public static int clampScroll(int offset, int delta, int maxScrollDistance,
+                                  boolean bounded) {
+        int realOffset = delta;
+        if (offset + delta < 0) {
+            if (Math.abs(delta) > offset) {
+                realOffset = -offset;
+            } else {
+                realOffset -= offset;
+            }
+        } else if (bounded && offset + delta > maxScrollDistance) {
+            realOffset = maxScrollDistance - offset;
+        }
+        return realOffset;
+    }
+}
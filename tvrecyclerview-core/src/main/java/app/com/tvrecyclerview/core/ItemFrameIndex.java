@@ -0,0 +1,250 @@
+package app.com.tvrecyclerview.core;
+
+import java.util.Arrays;
+
+/**
+ * Index of item frames along the primary (scrolling) axis.
+ *
+ * The primary axis is cut into buckets of a fixed size and every position is
+ * kept in the bucket that holds its start edge. A query for the range
+ * [start, end) only visits the buckets between (start - longest item) and end,
+ * so its cost depends on the size of the range, not on the number of items
+ * that have been laid out. The frames themselves live in {@link ItemFrameStore},
+ * which filters the candidates returned here.
+ */
+public final class ItemFrameIndex {
+
+    private static final int DEFAULT_BUCKET_SIZE = 256;
+
+    private static final int NO_BUCKET = -1;
+
+    private final int mBucketSize;
+
+    /**
+     * positions of each bucket
+     */
+    private int[][] mBuckets = new int[16][];
+
+    private int[] mBucketSizes = new int[16];
+
+    /**
+     * number of buckets in use
+     */
+    private int mBucketCount;
+
+    /**
+     * bucket of each position, NO_BUCKET if the position is not indexed
+     */
+    private int[] mBucketOf = new int[0];
+
+    /**
+     * The longest primary length ever indexed, it bounds how far before
+     * the query start an intersecting item can begin.
+     */
+    private int mMaxLength;
+
+    private int mSize;
+
+    private int mFirstPosition = -1;
+
+    private int mLastPosition = -1;
+
+    public ItemFrameIndex() {
+        this(DEFAULT_BUCKET_SIZE);
+    }
+
+    public ItemFrameIndex(int bucketSize) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("bucket size must be positive");
+        }
+        mBucketSize = bucketSize;
+    }
+
+    /**
+     * Saves or replaces the primary range of a position.
+     */
+    public void put(int position, int start, int end) {
+        ensurePositionCapacity(position + 1);
+        if (mBucketOf[position] != NO_BUCKET) {
+            removeFromBucket(mBucketOf[position], position);
+        } else {
+            mSize++;
+        }
+        int bucket = getBucket(start);
+        addToBucket(bucket, position);
+        mBucketOf[position] = bucket;
+        if (end - start > mMaxLength) {
+            mMaxLength = end - start;
+        }
+        if (mFirstPosition < 0 || position < mFirstPosition) {
+            mFirstPosition = position;
+        }
+        if (position > mLastPosition) {
+            mLastPosition = position;
+        }
+    }
+
+    public void remove(int position) {
+        if (!contains(position)) {
+            return;
+        }
+        removeFromBucket(mBucketOf[position], position);
+        mBucketOf[position] = NO_BUCKET;
+        mSize--;
+        if (mSize == 0) {
+            mFirstPosition = -1;
+            mLastPosition = -1;
+            return;
+        }
+        if (position == mFirstPosition) {
+            while (mBucketOf[mFirstPosition] == NO_BUCKET) {
+                mFirstPosition++;
+            }
+        }
+        if (position == mLastPosition) {
+            while (mBucketOf[mLastPosition] == NO_BUCKET) {
+                mLastPosition--;
+            }
+        }
+    }
+
+    public boolean contains(int position) {
+        return position >= 0 && position < mBucketOf.length
+                && mBucketOf[position] != NO_BUCKET;
+    }
+
+    /**
+     * Returns the number of indexed positions.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Returns the smallest indexed position, or -1 if the index is empty.
+     */
+    public int getFirstPosition() {
+        return mFirstPosition;
+    }
+
+    /**
+     * Returns the largest indexed position, or -1 if the index is empty.
+     */
+    public int getLastPosition() {
+        return mLastPosition;
+    }
+
+    public void clear() {
+        Arrays.fill(mBucketOf, NO_BUCKET);
+        Arrays.fill(mBucketSizes, 0, mBucketCount, 0);
+        mBucketCount = 0;
+        mMaxLength = 0;
+        mSize = 0;
+        mFirstPosition = -1;
+        mLastPosition = -1;
+    }
+
+    /**
+     * Replaces the content with a copy of another index of the same bucket size.
+     */
+    public void copyFrom(ItemFrameIndex other) {
+        if (other.mBucketSize != mBucketSize) {
+            throw new IllegalArgumentException("bucket size mismatch");
+        }
+        int bucketCount = other.mBucketCount;
+        if (mBuckets.length < bucketCount) {
+            mBuckets = new int[bucketCount][];
+            mBucketSizes = new int[bucketCount];
+        }
+        for (int b = 0; b < bucketCount; b++) {
+            int size = other.mBucketSizes[b];
+            int[] positions = mBuckets[b];
+            if (positions == null || positions.length < size) {
+                positions = new int[Math.max(size, 8)];
+                mBuckets[b] = positions;
+            }
+            if (size > 0) {
+                System.arraycopy(other.mBuckets[b], 0, positions, 0, size);
+            }
+            mBucketSizes[b] = size;
+        }
+        Arrays.fill(mBucketSizes, bucketCount, Math.max(bucketCount, mBucketCount), 0);
+        mBucketCount = bucketCount;
+        if (mBucketOf.length < other.mBucketOf.length) {
+            mBucketOf = new int[other.mBucketOf.length];
+        }
+        System.arraycopy(other.mBucketOf, 0, mBucketOf, 0, other.mBucketOf.length);
+        Arrays.fill(mBucketOf, other.mBucketOf.length, mBucketOf.length, NO_BUCKET);
+        mMaxLength = other.mMaxLength;
+        mSize = other.mSize;
+        mFirstPosition = other.mFirstPosition;
+        mLastPosition = other.mLastPosition;
+    }
+
+    /**
+     * Collects the positions which may intersect the primary range [start, end),
+     * the result is unsorted and may contain positions outside the range.
+     */
+    public void collectCandidates(int start, int end, PositionList out) {
+        out.clear();
+        if (mSize == 0 || end <= start) {
+            return;
+        }
+        int firstBucket = getBucket(start - mMaxLength);
+        int lastBucket = Math.min(getBucket(end), mBucketCount - 1);
+        for (int b = firstBucket; b <= lastBucket; b++) {
+            int[] bucket = mBuckets[b];
+            for (int i = 0, size = mBucketSizes[b]; i < size; i++) {
+                out.add(bucket[i]);
+            }
+        }
+    }
+
+    private int getBucket(int start) {
+        return start <= 0 ? 0 : start / mBucketSize;
+    }
+
+    private void addToBucket(int bucket, int position) {
+        if (bucket >= mBuckets.length) {
+            int newLength = Math.max(bucket + 1, mBuckets.length * 2);
+            mBuckets = Arrays.copyOf(mBuckets, newLength);
+            mBucketSizes = Arrays.copyOf(mBucketSizes, newLength);
+        }
+        int[] positions = mBuckets[bucket];
+        int size = mBucketSizes[bucket];
+        if (positions == null) {
+            positions = new int[8];
+            mBuckets[bucket] = positions;
+        } else if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            mBuckets[bucket] = positions;
+        }
+        positions[size] = position;
+        mBucketSizes[bucket] = size + 1;
+        if (bucket >= mBucketCount) {
+            mBucketCount = bucket + 1;
+        }
+    }
+
+    private void removeFromBucket(int bucket, int position) {
+        int[] positions = mBuckets[bucket];
+        int last = mBucketSizes[bucket] - 1;
+        for (int i = last; i >= 0; i--) {
+            if (positions[i] == position) {
+                positions[i] = positions[last];
+                mBucketSizes[bucket] = last;
+                return;
+            }
+        }
+    }
+
+    private void ensurePositionCapacity(int capacity) {
+        int oldLength = mBucketOf.length;
+        if (capacity <= oldLength) {
+            return;
+        }
+        int newLength = Math.max(capacity, Math.max(64, oldLength * 2));
+        mBucketOf = Arrays.copyOf(mBucketOf, newLength);
+        Arrays.fill(mBucketOf, oldLength, newLength, NO_BUCKET);
+    }
+}
@@ -0,0 +1,244 @@
+package app.com.tvrecyclerview.core;
+
+import java.util.Arrays;
+
+/**
+ * Saves the frames of laid out items in primitive columns indexed by adapter position,
+ * so a frame costs four ints instead of a Rect object. The columns grow with the
+ * largest saved position and are never shrunk, reading and writing a frame does not
+ * allocate.
+ */
+public final class ItemFrameStore {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private int[] mLefts = new int[0];
+
+    private int[] mTops = new int[0];
+
+    private int[] mRights = new int[0];
+
+    private int[] mBottoms = new int[0];
+
+    private final ItemFrameIndex mIndex = new ItemFrameIndex();
+
+    /**
+     * True if the primary direction is horizontal.
+     */
+    private boolean mHorizontal;
+
+    public ItemFrameStore(boolean horizontal) {
+        mHorizontal = horizontal;
+    }
+
+    /**
+     * Changes the primary direction, all saved frames are dropped if it changes.
+     */
+    public void setHorizontal(boolean horizontal) {
+        if (mHorizontal != horizontal) {
+            mHorizontal = horizontal;
+            clear();
+        }
+    }
+
+    public void put(int position, int left, int top, int right, int bottom) {
+        ensureCapacity(position + 1);
+        mLefts[position] = left;
+        mTops[position] = top;
+        mRights[position] = right;
+        mBottoms[position] = bottom;
+        if (mHorizontal) {
+            mIndex.put(position, left, right);
+        } else {
+            mIndex.put(position, top, bottom);
+        }
+    }
+
+    /**
+     * Replaces all frames with the frames of another store of the same direction.
+     */
+    public void copyFrom(ItemFrameStore other) {
+        int length = other.mLefts.length;
+        ensureCapacity(length);
+        System.arraycopy(other.mLefts, 0, mLefts, 0, length);
+        System.arraycopy(other.mTops, 0, mTops, 0, length);
+        System.arraycopy(other.mRights, 0, mRights, 0, length);
+        System.arraycopy(other.mBottoms, 0, mBottoms, 0, length);
+        mIndex.copyFrom(other.mIndex);
+    }
+
+    public void remove(int position) {
+        mIndex.remove(position);
+    }
+
+    /**
+     * Drops the frames of the given position and all positions after it.
+     * @return true if any frame was dropped
+     */
+    public boolean removeFrom(int position) {
+        int last = mIndex.getLastPosition();
+        if (last < position) {
+            return false;
+        }
+        for (int i = last; i >= position; i--) {
+            mIndex.remove(i);
+        }
+        return true;
+    }
+
+    public void clear() {
+        mIndex.clear();
+    }
+
+    /**
+     * Returns the first position at or after the given one without a frame.
+     */
+    public int nextAbsentPosition(int position) {
+        int first = mIndex.getFirstPosition();
+        int last = mIndex.getLastPosition();
+        if (isContiguous() && position >= first) {
+            return Math.max(position, last + 1);
+        }
+        int i = position;
+        while (i <= last && mIndex.contains(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the last position at or before the given one without a frame, -1 if none.
+     */
+    public int previousAbsentPosition(int position) {
+        int first = mIndex.getFirstPosition();
+        int last = mIndex.getLastPosition();
+        if (isContiguous() && position <= last) {
+            return Math.min(position, first - 1);
+        }
+        int i = position;
+        while (i >= 0 && mIndex.contains(i)) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Returns true if the saved positions have no gaps.
+     */
+    private boolean isContiguous() {
+        return mIndex.size() == mIndex.getLastPosition() - mIndex.getFirstPosition() + 1;
+    }
+
+    /**
+     * Returns the largest end edge in primary direction, 0 if there are no frames.
+     */
+    public int getMaxEnd() {
+        int maxEnd = 0;
+        int first = mIndex.getFirstPosition();
+        int last = mIndex.getLastPosition();
+        for (int i = Math.max(first, 0); i <= last; i++) {
+            if (mIndex.contains(i)) {
+                maxEnd = Math.max(maxEnd, getEnd(i));
+            }
+        }
+        return maxEnd;
+    }
+
+    public boolean contains(int position) {
+        return mIndex.contains(position);
+    }
+
+    /**
+     * Returns the number of saved frames.
+     */
+    public int size() {
+        return mIndex.size();
+    }
+
+    /**
+     * Returns the smallest position which has a frame, or -1 if there is none.
+     */
+    public int getFirstPosition() {
+        return mIndex.getFirstPosition();
+    }
+
+    /**
+     * Returns the largest position which has a frame, or -1 if there is none.
+     */
+    public int getLastPosition() {
+        return mIndex.getLastPosition();
+    }
+
+    public int getLeft(int position) {
+        return mLefts[position];
+    }
+
+    public int getTop(int position) {
+        return mTops[position];
+    }
+
+    public int getRight(int position) {
+        return mRights[position];
+    }
+
+    public int getBottom(int position) {
+        return mBottoms[position];
+    }
+
+    /**
+     * Returns the start edge of the frame in primary direction.
+     */
+    public int getStart(int position) {
+        return mHorizontal ? mLefts[position] : mTops[position];
+    }
+
+    /**
+     * Returns the end edge of the frame in primary direction.
+     */
+    public int getEnd(int position) {
+        return mHorizontal ? mRights[position] : mBottoms[position];
+    }
+
+    /**
+     * Returns true if the saved frame of the position intersects the given area,
+     * same as {@code Rect.intersects(int, int, int, int)}.
+     */
+    public boolean intersects(int position, int left, int top, int right, int bottom) {
+        return contains(position)
+                && mLefts[position] < right && left < mRights[position]
+                && mTops[position] < bottom && top < mBottoms[position];
+    }
+
+    /**
+     * Collects the positions whose frames intersect the given area.
+     * @param out save the positions in ascending order
+     */
+    public void query(int left, int top, int right, int bottom, PositionList out) {
+        if (mHorizontal) {
+            mIndex.collectCandidates(left, right, out);
+        } else {
+            mIndex.collectCandidates(top, bottom, out);
+        }
+        int size = 0;
+        for (int i = 0, count = out.size(); i < count; i++) {
+            int position = out.get(i);
+            if (intersects(position, left, top, right, bottom)) {
+                out.set(size++, position);
+            }
+        }
+        out.truncate(size);
+        out.sort();
+    }
+
+    private void ensureCapacity(int capacity) {
+        int oldLength = mLefts.length;
+        if (capacity <= oldLength) {
+            return;
+        }
+        int newLength = Math.max(capacity, Math.max(MIN_CAPACITY, oldLength * 2));
+        mLefts = Arrays.copyOf(mLefts, newLength);
+        mTops = Arrays.copyOf(mTops, newLength);
+        mRights = Arrays.copyOf(mRights, newLength);
+        mBottoms = Arrays.copyOf(mBottoms, newLength);
+    }
+}
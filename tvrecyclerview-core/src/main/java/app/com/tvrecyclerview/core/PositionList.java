@@ -0,0 +1,76 @@
+package app.com.tvrecyclerview.core;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of adapter positions backed by an int array,
+ * used instead of ArrayList&lt;Integer&gt; to avoid boxing.
+ */
+public final class PositionList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] mPositions;
+
+    private int mSize;
+
+    public PositionList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PositionList(int capacity) {
+        mPositions = new int[capacity > 0 ? capacity : DEFAULT_CAPACITY];
+    }
+
+    public void add(int position) {
+        if (mSize == mPositions.length) {
+            mPositions = Arrays.copyOf(mPositions, mSize * 2);
+        }
+        mPositions[mSize++] = position;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index " + index + " size " + mSize);
+        }
+        return mPositions[index];
+    }
+
+    public void set(int index, int position) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index " + index + " size " + mSize);
+        }
+        mPositions[index] = position;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Drops the positions after the given size.
+     */
+    public void truncate(int size) {
+        if (size < mSize) {
+            mSize = size < 0 ? 0 : size;
+        }
+    }
+
+    public void clear() {
+        mSize = 0;
+    }
+
+    /**
+     * Sorts the positions in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(mPositions, 0, mSize);
+    }
+
+    /**
+     * Returns true if the position is in the list, the list must be sorted.
+     */
+    public boolean containsSorted(int position) {
+        return Arrays.binarySearch(mPositions, 0, mSize, position) >= 0;
+    }
+}
@@ -0,0 +1,94 @@
+package app.com.tvrecyclerview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the neighbours found by {@link FocusNavigator} in an irregular horizontal grid.
+ */
+public class FocusNavigatorTest {
+
+    private static final int CELL = 100;
+
+    private final FocusNavigator mNavigator = new FocusNavigator();
+
+    /**
+     * Item 0 takes 2x2 cells, the items after it take one cell, column by column.
+     */
+    private static ItemFrameStore createMosaic(int columns) {
+        ItemFrameStore frames = new ItemFrameStore(true);
+        frames.put(0, 0, 0, 2 * CELL, 2 * CELL);
+        int position = 1;
+        for (int column = 2; column < columns; column++) {
+            for (int row = 0; row < 2; row++) {
+                frames.put(position++, column * CELL, row * CELL,
+                        (column + 1) * CELL, (row + 1) * CELL);
+            }
+        }
+        return frames;
+    }
+
+    @Test
+    public void moves_toNearestItemInBeam() {
+        ItemFrameStore frames = createMosaic(40);
+        int end = 40 * CELL;
+        assertEquals(1, mNavigator.findNeighbor(frames, true, 0, FocusNavigator.RIGHT, end));
+        assertEquals(0, mNavigator.findNeighbor(frames, true, 2, FocusNavigator.LEFT, end));
+        assertEquals(2, mNavigator.findNeighbor(frames, true, 1, FocusNavigator.DOWN, end));
+        assertEquals(3, mNavigator.findNeighbor(frames, true, 1, FocusNavigator.RIGHT, end));
+    }
+
+    @Test
+    public void returnsNoPosition_atEdges() {
+        ItemFrameStore frames = createMosaic(40);
+        int end = 40 * CELL;
+        int last = frames.getLastPosition();
+        assertEquals(-1, mNavigator.findNeighbor(frames, true, 0, FocusNavigator.LEFT, end));
+        assertEquals(-1, mNavigator.findNeighbor(frames, true, 1, FocusNavigator.UP, end));
+        assertEquals(-1, mNavigator.findNeighbor(frames, true, 2, FocusNavigator.DOWN, end));
+        assertEquals(-1, mNavigator.findNeighbor(frames, true, last, FocusNavigator.RIGHT, end));
+    }
+
+    @Test
+    public void prefersFartherItemInBeam_overNearerItemOutOfBeam() {
+        // the distances do not fall on the boundaries of the growing search windows
+        int[] distances = {3, 13, 30, 40, 57, 100, 333};
+        for (int distance : distances) {
+            ItemFrameStore frames = new ItemFrameStore(true);
+            frames.put(0, 0, 0, CELL, CELL);
+            frames.put(1, 0, CELL, CELL, 2 * CELL);
+            frames.put(2, 10 * CELL, CELL, 11 * CELL, 2 * CELL);
+            frames.put(3, distance * CELL, 0, (distance + 1) * CELL, CELL);
+            int end = Math.max(distance + 1, 11) * CELL;
+            assertEquals("distance " + distance, 3,
+                    mNavigator.findNeighbor(frames, true, 0, FocusNavigator.RIGHT, end));
+            assertEquals("distance " + distance, 2,
+                    mNavigator.findNeighbor(frames, true, 1, FocusNavigator.RIGHT, end));
+        }
+    }
+
+    @Test
+    public void prefersFartherItemInBeam_whenMovingBackward() {
+        int[] distances = {13, 40, 57, 100, 333};
+        for (int distance : distances) {
+            ItemFrameStore frames = new ItemFrameStore(true);
+            frames.put(0, 0, 0, CELL, CELL);
+            frames.put(1, (distance - 10) * CELL, CELL, (distance - 9) * CELL, 2 * CELL);
+            frames.put(2, distance * CELL, 0, (distance + 1) * CELL, CELL);
+            int end = (distance + 1) * CELL;
+            assertEquals("distance " + distance, 0,
+                    mNavigator.findNeighbor(frames, true, 2, FocusNavigator.LEFT, end));
+        }
+    }
+
+    @Test
+    public void movesAcrossPrimaryDirection_toNearestItemOutOfBeam() {
+        ItemFrameStore frames = new ItemFrameStore(false);
+        frames.put(0, 0, 0, CELL, CELL);
+        frames.put(1, 3 * CELL, 2 * CELL, 4 * CELL, 3 * CELL);
+        frames.put(2, 3 * CELL, 8 * CELL, 4 * CELL, 9 * CELL);
+        assertEquals(1, mNavigator.findNeighbor(frames, false, 0, FocusNavigator.RIGHT,
+                9 * CELL));
+    }
+}
@@ -37,6 +37,8 @@ abstract class BaseGridView extends RecyclerView {
 
     private int mFocusZoomFactor = FocusHighlightHelper.ZOOM_FACTOR_NONE;
 
+    private SharedViewPool mSharedViewPool;
+
     /**
      * Listener for intercepting touch dispatch events.
      */
@@ -74,6 +76,25 @@ abstract class BaseGridView extends RecyclerView {
         boolean onUnhandledKey(KeyEvent event);
     }
 
+    /**
+     * Listener for the cost of the layout and scroll passes, cheap enough to be
+     * left set in release builds.
+     */
+    public interface OnLayoutMetricsListener {
+        /**
+         * Called at the end of each layout or scroll pass. The metrics instance is
+         * reused for the next pass.
+         */
+        void onLayoutPass(GridLayoutMetrics metrics);
+
+        /**
+         * Called when the focus moved by a key has stopped scrolling.
+         * @param position the focused position
+         * @param latencyMillis time from the key event to the focused view in place
+         */
+        void onFocusSettled(int position, long latencyMillis);
+    }
+
     final GridLayoutManager mLayoutManager;
 
     /**
@@ -126,19 +147,103 @@ abstract class BaseGridView extends RecyclerView {
         a.recycle();
     }
 
-    public void setAdapter(GridObjectAdapter adapter) {
+    public void setAdapter(ObjectAdapter adapter) {
         setAdapter(adapter, null);
     }
 
-    public void setAdapter(GridObjectAdapter adapter, PresenterSelector presenterSelector) {
+    /**
+     * Sets the items to show.
+     * @param adapter null removes the items and their views
+     * @param presenterSelector used instead of the selector of the adapter, may be null
+     */
+    public void setAdapter(ObjectAdapter adapter, PresenterSelector presenterSelector) {
+        if (adapter == null) {
+            super.setAdapter(null);
+            mLayoutManager.clearAdapter();
+            return;
+        }
+        mLayoutManager.setAdapter(adapter);
+        ItemBridgeAdapter bridgeAdapter = new ItemBridgeAdapter(adapter, presenterSelector);
+        bridgeAdapter.setSharedViewPool(mSharedViewPool);
+        FocusHighlightHelper.setupItemBridgeFocusHighlight(bridgeAdapter, mFocusZoomFactor);
+        setAdapter(bridgeAdapter);
+    }
+
+    /**
+     * Replaces the adapter by one of the same presenters, e.g. a refreshed row. The
+     * views, the scroll offset and the focused item are kept, and so are the frames
+     * of the items until the first one whose spans differ. The presenter selector
+     * given to {@link #setAdapter(ObjectAdapter, PresenterSelector)} is kept.
+     * @param adapter null removes the items and their views, like setAdapter(null)
+     */
+    public void swapAdapter(ObjectAdapter adapter) {
+        Adapter current = getAdapter();
+        ItemBridgeAdapter bridgeAdapter = current instanceof ItemBridgeAdapter
+                ? (ItemBridgeAdapter) current : null;
+        ObjectAdapter oldAdapter = bridgeAdapter != null ? bridgeAdapter.getAdapter() : null;
+        if (adapter == null) {
+            setAdapter(null, null);
+            return;
+        }
+        if (oldAdapter == null || adapter.hasStableIds() != oldAdapter.hasStableIds()) {
+            // the stable ids can not change while the adapter is observed
+            setAdapter(adapter, bridgeAdapter != null ? bridgeAdapter.getPresenterSelector() : null);
+            return;
+        }
+        if (adapter == oldAdapter) {
+            return;
+        }
+        boolean samePresenters = bridgeAdapter.getPresenterSelector() != null
+                || isSamePresenterSelector(oldAdapter.getPresenterSelector(),
+                        adapter.getPresenterSelector());
+        mLayoutManager.swapAdapter(adapter, samePresenters);
+        bridgeAdapter.setAdapter(adapter);
+        bridgeAdapter.notifyDataSetChanged();
+    }
+
+    /**
+     * Returns true if the selectors are the same or select the same single presenter.
+     */
+    private static boolean isSamePresenterSelector(PresenterSelector oldSelector,
+                                                   PresenterSelector newSelector) {
+        if (oldSelector == newSelector) {
+            return true;
+        }
+        return oldSelector instanceof SinglePresenterSelector
+                && newSelector instanceof SinglePresenterSelector
+                && oldSelector.getPresenter(null) == newSelector.getPresenter(null);
+    }
+
+    /**
+     * Shares the views with the other grid views of the page using the same pool,
+     * e.g. the rows of a home screen. Set it before the adapter, the current views
+     * are dropped otherwise.
+     * @param viewPool null (default) keeps the views to this grid view
+     */
+    public void setSharedViewPool(SharedViewPool viewPool) {
+        if (mSharedViewPool == viewPool) {
+            return;
+        }
+        Adapter adapter = getAdapter();
         if (adapter != null) {
-            mLayoutManager.setAdapter(adapter);
-            ItemBridgeAdapter bridgeAdapter = new ItemBridgeAdapter(adapter, presenterSelector);
-            FocusHighlightHelper.setupItemBridgeFocusHighlight(bridgeAdapter, mFocusZoomFactor);
-            setAdapter(bridgeAdapter);
+            // the views of the adapter are typed for the previous pool
+            setAdapter((Adapter) null);
+        }
+        mSharedViewPool = viewPool;
+        setRecycledViewPool(viewPool);
+        mLayoutManager.setRecycleChildrenOnDetach(viewPool != null);
+        if (adapter != null) {
+            if (adapter instanceof ItemBridgeAdapter) {
+                ((ItemBridgeAdapter) adapter).setSharedViewPool(viewPool);
+            }
+            setAdapter(adapter);
         }
     }
 
+    public SharedViewPool getSharedViewPool() {
+        return mSharedViewPool;
+    }
+
     /**
      * set zoom factor
      * @param factor factor
@@ -287,6 +392,77 @@ abstract class BaseGridView extends RecyclerView {
         mLayoutManager.setSelectionWithSub(this, position, subposition, scrollExtra);
     }
 
+    /**
+     * Sets how far a smooth selection may be from the attached items before it jumps
+     * to the target instead of scrolling through every item on the way.
+     * @param threshold number of items, 0 (default) never jumps
+     */
+    public void setSelectionJumpThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Invalid threshold");
+        }
+        mLayoutManager.setSelectionJumpThreshold(threshold);
+    }
+
+    public int getSelectionJumpThreshold() {
+        return mLayoutManager.getSelectionJumpThreshold();
+    }
+
+    /**
+     * Sets whether a jump lands one item short of the target and scrolls the rest
+     * with a short animation, default is true.
+     */
+    public void setSelectionJumpSettle(boolean settle) {
+        mLayoutManager.setSelectionJumpSettle(settle);
+    }
+
+    public boolean isSelectionJumpSettle() {
+        return mLayoutManager.isSelectionJumpSettle();
+    }
+
+    /**
+     * Sets the max number of items prefetched beyond the viewport in the scrolling or
+     * focus direction while the view is idle.
+     * @param itemCount 0 (default) prefetches one row or column of a regular grid and
+     *                  the items within one cell of an irregular grid. Ignored with
+     *                  {@link #FOCUS_SCROLL_PAGE}, which prefetches the next page.
+     */
+    public void setPrefetchItemCount(int itemCount) {
+        if (itemCount < 0) {
+            throw new IllegalArgumentException("Invalid itemCount");
+        }
+        mLayoutManager.setPrefetchItemCount(itemCount);
+    }
+
+    public int getPrefetchItemCount() {
+        return mLayoutManager.getPrefetchItemCount();
+    }
+
+    /**
+     * Installs a tracer receiving the layout, fill, recycle, scroll and focus phases,
+     * e.g. {@link SystemTraceTracer} or {@link RingBufferTracer}.
+     * @param tracer null (default) turns tracing off
+     */
+    public void setTracer(GridTracer tracer) {
+        mLayoutManager.setTracer(tracer);
+    }
+
+    public GridTracer getTracer() {
+        return mLayoutManager.getTracer();
+    }
+
+    /**
+     * Sets the listener receiving the metrics of each layout and scroll pass.
+     * @param listener null (default) stops collecting the metrics
+     */
+    public void setOnLayoutMetricsListener(OnLayoutMetricsListener listener) {
+        mLayoutManager.setOnLayoutMetricsListener(listener);
+    }
+
+    public OnLayoutMetricsListener getOnLayoutMetricsListener() {
+        return mLayoutManager.getOnLayoutMetricsListener();
+    }
+
     /**
      * Changes the selected item and run an animation to scroll to the target
      * position.
@@ -303,6 +479,44 @@ abstract class BaseGridView extends RecyclerView {
         mLayoutManager.setSelectionSmoothWithSub(this, position, subposition);
     }
 
+    /**
+     * Selects the item with the stable id immediately without animation.
+     * @return false if no item has the id
+     * @see ObjectAdapter#setHasStableIds(boolean)
+     */
+    public boolean setSelectedItemId(long id) {
+        int position = getPositionOfId(id);
+        if (position < 0) {
+            return false;
+        }
+        setSelectedPosition(position);
+        return true;
+    }
+
+    /**
+     * Selects the item with the stable id and runs an animation to scroll to it.
+     * @return false if no item has the id
+     */
+    public boolean setSelectedItemIdSmooth(long id) {
+        int position = getPositionOfId(id);
+        if (position < 0) {
+            return false;
+        }
+        setSelectedPositionSmooth(position);
+        return true;
+    }
+
+    private int getPositionOfId(long id) {
+        Adapter adapter = getAdapter();
+        if (adapter instanceof ItemBridgeAdapter) {
+            ObjectAdapter objectAdapter = ((ItemBridgeAdapter) adapter).getAdapter();
+            if (objectAdapter != null) {
+                return objectAdapter.indexOfId(id);
+            }
+        }
+        return NO_POSITION;
+    }
+
     /**
      * Returns the selected item position.
      */
@@ -456,6 +670,11 @@ abstract class BaseGridView extends RecyclerView {
 
     @Override
     public boolean dispatchKeyEvent(KeyEvent event) {
+        if (event.getAction() == KeyEvent.ACTION_DOWN) {
+            mLayoutManager.onKeyDown(event.getEventTime());
+        } else if (event.getAction() == KeyEvent.ACTION_UP) {
+            mLayoutManager.onKeyUp();
+        }
         if (mOnKeyInterceptListener != null && mOnKeyInterceptListener.onInterceptKeyEvent(event)) {
             return true;
         }
@@ -0,0 +1,175 @@
+package app.com.tvrecyclerview;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Shader;
+import android.view.View;
+
+/**
+ * Fades the low and high edges of a grid view along its scrolling direction. The
+ * content is drawn once, then a gradient masks the edges with
+ * {@link PorterDuff.Mode#DST_IN}. The mask only applies to the content of the grid
+ * view because it draws into its own hardware layer while an edge is fading.
+ */
+final class FadingEdgeRenderer {
+
+    private final BaseGridView mView;
+
+    private final boolean mHorizontal;
+
+    private final Paint mPaint = new Paint();
+
+    private boolean mLowEnabled;
+    private int mLowLength;
+    private int mLowOffset;
+    private LinearGradient mLowShader;
+
+    private boolean mHighEnabled;
+    private int mHighLength;
+    private int mHighOffset;
+    private LinearGradient mHighShader;
+
+    FadingEdgeRenderer(BaseGridView view, boolean horizontal) {
+        mView = view;
+        mHorizontal = horizontal;
+        mPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
+    }
+
+    void setLowEnabled(boolean enabled) {
+        if (mLowEnabled != enabled) {
+            mLowEnabled = enabled;
+            updateLayerType();
+            mView.invalidate();
+        }
+    }
+
+    boolean isLowEnabled() {
+        return mLowEnabled;
+    }
+
+    void setLowLength(int length) {
+        if (mLowLength != length) {
+            mLowLength = length;
+            // transparent at the edge, opaque towards the content
+            mLowShader = length != 0 ? createShader(length, Color.TRANSPARENT, Color.BLACK) : null;
+            mView.invalidate();
+        }
+    }
+
+    int getLowLength() {
+        return mLowLength;
+    }
+
+    void setLowOffset(int offset) {
+        if (mLowOffset != offset) {
+            mLowOffset = offset;
+            mView.invalidate();
+        }
+    }
+
+    int getLowOffset() {
+        return mLowOffset;
+    }
+
+    void setHighEnabled(boolean enabled) {
+        if (mHighEnabled != enabled) {
+            mHighEnabled = enabled;
+            updateLayerType();
+            mView.invalidate();
+        }
+    }
+
+    boolean isHighEnabled() {
+        return mHighEnabled;
+    }
+
+    void setHighLength(int length) {
+        if (mHighLength != length) {
+            mHighLength = length;
+            mHighShader = length != 0 ? createShader(length, Color.BLACK, Color.TRANSPARENT) : null;
+            mView.invalidate();
+        }
+    }
+
+    int getHighLength() {
+        return mHighLength;
+    }
+
+    void setHighOffset(int offset) {
+        if (mHighOffset != offset) {
+            mHighOffset = offset;
+            mView.invalidate();
+        }
+    }
+
+    int getHighOffset() {
+        return mHighOffset;
+    }
+
+    private LinearGradient createShader(int length, int startColor, int endColor) {
+        return new LinearGradient(0, 0, mHorizontal ? length : 0, mHorizontal ? 0 : length,
+                startColor, endColor, Shader.TileMode.CLAMP);
+    }
+
+    /**
+     * Masks the edges of the content already drawn on the canvas. The area beyond
+     * the fading start of an edge is cleared.
+     */
+    void drawEdges(Canvas canvas) {
+        if (mLowEnabled && mLowShader != null
+                && mView.mLayoutManager.hasContentBeforeStart()) {
+            int paddingLow = mHorizontal ? mView.getPaddingLeft() : mView.getPaddingTop();
+            int fadeStart = paddingLow - mLowOffset - mLowLength;
+            mPaint.setShader(mLowShader);
+            // the shader clamps to transparent before the fading start
+            drawMask(canvas, fadeStart, -fadeStart, mLowLength);
+        }
+        if (mHighEnabled && mHighShader != null
+                && mView.mLayoutManager.hasContentAfterEnd()) {
+            int size = mHorizontal ? mView.getWidth() : mView.getHeight();
+            int paddingHigh = mHorizontal ? mView.getPaddingRight() : mView.getPaddingBottom();
+            // fades out into the padding like the low edge, the shader clamps to
+            // transparent past the fading end
+            int fadeStart = size - paddingHigh + mHighOffset;
+            mPaint.setShader(mHighShader);
+            drawMask(canvas, fadeStart, 0, size - fadeStart);
+        }
+        mPaint.setShader(null);
+    }
+
+    /**
+     * Draws the mask with the shader origin at the given position.
+     * @param from start of the masked range relative to the origin
+     * @param to end of the masked range relative to the origin
+     */
+    private void drawMask(Canvas canvas, int origin, int from, int to) {
+        if (mHorizontal) {
+            canvas.translate(origin, 0);
+            canvas.drawRect(from, 0, to, mView.getHeight(), mPaint);
+            canvas.translate(-origin, 0);
+        } else {
+            canvas.translate(0, origin);
+            canvas.drawRect(0, from, mView.getWidth(), to, mPaint);
+            canvas.translate(0, -origin);
+        }
+    }
+
+    /**
+     * Keeps the grid view in a hardware layer while an edge fades, so that the mask
+     * only applies to its content. It also keeps the layer up to date when a child
+     * invalidates itself.
+     */
+    private void updateLayerType() {
+        if (mLowEnabled || mHighEnabled) {
+            mView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            mView.setWillNotDraw(false);
+        } else {
+            mView.setLayerType(View.LAYER_TYPE_NONE, null);
+            mView.setWillNotDraw(true);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package app.com.tvrecyclerview;
+
+import android.support.v4.view.ViewCompat;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+import java.util.Arrays;
+
+/**
+ * Animates the focus zoom of the items of a grid view. All running animations are
+ * advanced by one frame callback, and the state of an animation is kept in arrays,
+ * so there is no animator object per view. The focus level of a view is read back
+ * from its scale.
+ */
+final class FocusAnimationDriver implements Choreographer.FrameCallback {
+
+    private static final Interpolator sInterpolator = new AccelerateDecelerateInterpolator();
+
+    private final int mDuration;
+
+    /**
+     * Scale of a fully focused view minus 1
+     */
+    private final float mScaleDiff;
+
+    private View[] mViews = new View[4];
+
+    private float[] mLevelStarts = new float[4];
+
+    private float[] mLevelEnds = new float[4];
+
+    /**
+     * Frame time of the first frame of each animation, 0 until it is drawn
+     */
+    private long[] mStartTimes = new long[4];
+
+    private int mCount;
+
+    private boolean mFrameCallbackPosted;
+
+    FocusAnimationDriver(float scale, int duration) {
+        mScaleDiff = scale - 1f;
+        mDuration = duration;
+    }
+
+    /**
+     * Animates the view from its current focus level to the focused or unfocused one.
+     */
+    void animateFocus(View view, boolean select) {
+        if (mScaleDiff == 0f) {
+            return;
+        }
+        float end = select ? 1f : 0f;
+        int index = indexOf(view);
+        float level = getFocusLevel(view);
+        if (level == end) {
+            if (index >= 0) {
+                removeAt(index);
+            }
+            return;
+        }
+        if (index < 0) {
+            index = mCount++;
+            ensureCapacity(mCount);
+            mViews[index] = view;
+        }
+        mLevelStarts[index] = level;
+        mLevelEnds[index] = end;
+        mStartTimes[index] = 0;
+        if (!mFrameCallbackPosted) {
+            mFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stops the animation of the view if any and shows it unfocused.
+     */
+    void resetFocus(View view) {
+        int index = indexOf(view);
+        if (index >= 0) {
+            removeAt(index);
+        }
+        setFocusLevel(view, 0f);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameCallbackPosted = false;
+        for (int i = mCount - 1; i >= 0; i--) {
+            View view = mViews[i];
+            if (!ViewCompat.isAttachedToWindow(view)) {
+                // not on the screen, no need to animate
+                setFocusLevel(view, mLevelEnds[i]);
+                removeAt(i);
+                continue;
+            }
+            if (mStartTimes[i] == 0) {
+                mStartTimes[i] = frameTimeNanos;
+            }
+            long totalTime = (frameTimeNanos - mStartTimes[i]) / 1000000L;
+            float fraction;
+            if (totalTime >= mDuration) {
+                fraction = 1;
+            } else {
+                fraction = sInterpolator.getInterpolation(totalTime / (float) mDuration);
+            }
+            float start = mLevelStarts[i];
+            setFocusLevel(view, start + fraction * (mLevelEnds[i] - start));
+            if (fraction >= 1) {
+                removeAt(i);
+            }
+        }
+        if (mCount > 0) {
+            mFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private float getFocusLevel(View view) {
+        return mScaleDiff == 0f ? 0f : (view.getScaleX() - 1f) / mScaleDiff;
+    }
+
+    private void setFocusLevel(View view, float level) {
+        float scale = 1f + mScaleDiff * level;
+        view.setScaleX(scale);
+        view.setScaleY(scale);
+    }
+
+    private int indexOf(View view) {
+        for (int i = 0; i < mCount; i++) {
+            if (mViews[i] == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replaces the animation at the index with the last one.
+     */
+    private void removeAt(int index) {
+        int last = --mCount;
+        mViews[index] = mViews[last];
+        mLevelStarts[index] = mLevelStarts[last];
+        mLevelEnds[index] = mLevelEnds[last];
+        mStartTimes[index] = mStartTimes[last];
+        mViews[last] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > mViews.length) {
+            int length = mViews.length * 2;
+            mViews = Arrays.copyOf(mViews, length);
+            mLevelStarts = Arrays.copyOf(mLevelStarts, length);
+            mLevelEnds = Arrays.copyOf(mLevelEnds, length);
+            mStartTimes = Arrays.copyOf(mStartTimes, length);
+        }
+    }
+}
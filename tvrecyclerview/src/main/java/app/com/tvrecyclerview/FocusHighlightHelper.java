@@ -1,10 +1,7 @@
 package app.com.tvrecyclerview;
 
-import android.animation.TimeAnimator;
 import android.content.res.Resources;
 import android.view.View;
-import android.view.animation.AccelerateDecelerateInterpolator;
-import android.view.animation.Interpolator;
 
 
 /**
@@ -55,71 +52,16 @@ public class FocusHighlightHelper {
     }
 
 
-    private static class FocusAnimator implements TimeAnimator.TimeListener {
-        private final View mView;
-        private final int mDuration;
-        private final float mScaleDiff;
-        private float mFocusLevel = 0f;
-        private float mFocusLevelStart;
-        private float mFocusLevelDelta;
-        private final TimeAnimator mAnimator = new TimeAnimator();
-        private final Interpolator mInterpolator = new AccelerateDecelerateInterpolator();
-
-        void animateFocus(boolean select, boolean immediate) {
-            endAnimation();
-            final float end = select ? 1 : 0;
-            if (immediate) {
-                setFocusLevel(end);
-            } else if (mFocusLevel != end) {
-                mFocusLevelStart = mFocusLevel;
-                mFocusLevelDelta = end - mFocusLevelStart;
-                mAnimator.start();
-            }
-        }
-
-        FocusAnimator(View view, float scale, int duration) {
-            mView = view;
-            mDuration = duration;
-            mScaleDiff = scale - 1f;
-            mAnimator.setTimeListener(this);
-        }
-
-        void setFocusLevel(float level) {
-            mFocusLevel = level;
-            float scale = 1f + mScaleDiff * level;
-            mView.setScaleX(scale);
-            mView.setScaleY(scale);
-        }
-
-        float getFocusLevel() {
-            return mFocusLevel;
-        }
-
-        void endAnimation() {
-            mAnimator.end();
-        }
-
-        @Override
-        public void onTimeUpdate(TimeAnimator animation, long totalTime, long deltaTime) {
-            float fraction;
-            if (totalTime >= mDuration) {
-                fraction = 1;
-                mAnimator.end();
-            } else {
-                fraction = (float) (totalTime / (double) mDuration);
-            }
-            if (mInterpolator != null) {
-                fraction = mInterpolator.getInterpolation(fraction);
-            }
-            setFocusLevel(mFocusLevelStart + fraction * mFocusLevelDelta);
-        }
-    }
-
     private static class ItemBridgeFocusHighlight implements FocusHighlightHandler {
         private static final int DURATION_MS = 150;
 
         private int mScaleIndex;
 
+        /**
+         * Created with the first view, the scale depends on its resources.
+         */
+        private FocusAnimationDriver mDriver;
+
         public ItemBridgeFocusHighlight(int zoomIndex) {
             if (!isValidZoomIndex(zoomIndex)) {
                 throw new IllegalArgumentException("Unhandled zoom index");
@@ -135,22 +77,19 @@ public class FocusHighlightHelper {
         @Override
         public void onItemFocused(View view, boolean hasFocus) {
             view.setSelected(hasFocus);
-            getOrCreateAnimator(view).animateFocus(hasFocus, false);
+            getDriver(view).animateFocus(view, hasFocus);
         }
 
         @Override
         public void onInitializeView(View view) {
-            getOrCreateAnimator(view).animateFocus(false, true);
+            getDriver(view).resetFocus(view);
         }
 
-        private FocusAnimator getOrCreateAnimator(View view) {
-            FocusAnimator animator = (FocusAnimator) view.getTag(R.id.tr_focus_animator);
-            if (animator == null) {
-                animator = new FocusAnimator(
-                        view, getScale(view.getResources()), DURATION_MS);
-                view.setTag(R.id.tr_focus_animator, animator);
+        private FocusAnimationDriver getDriver(View view) {
+            if (mDriver == null) {
+                mDriver = new FocusAnimationDriver(getScale(view.getResources()), DURATION_MS);
             }
-            return animator;
+            return mDriver;
         }
 
     }
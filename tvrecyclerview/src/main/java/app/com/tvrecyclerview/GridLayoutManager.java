@@ -2,26 +2,33 @@ package app.com.tvrecyclerview;
 
 import android.graphics.PointF;
 import android.graphics.Rect;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.SystemClock;
 import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.LinearSmoothScroller;
 import android.support.v7.widget.OrientationHelper;
 import android.support.v7.widget.RecyclerView;
 import android.util.Log;
-import android.util.SparseArray;
 import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.Locale;
+
+import app.com.tvrecyclerview.core.FocusNavigator;
+import app.com.tvrecyclerview.core.FramePlan;
+import app.com.tvrecyclerview.core.GridFrameSpec;
+import app.com.tvrecyclerview.core.GridGeometry;
+import app.com.tvrecyclerview.core.ItemFrameStore;
+import app.com.tvrecyclerview.core.PositionList;
 
 
 final class GridLayoutManager extends RecyclerView.LayoutManager {
 
     private static final String TAG = "GridLayoutManager";
 
-    private static final boolean DEBUG = true;
-
     private static final int BASE_ITEM_DEFAULT_SIZE = 220;
 
     private static final int HORIZONTAL = OrientationHelper.HORIZONTAL;
@@ -35,7 +42,7 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     private static final int NO_ID = -1;
     private static final int DEFAULT_DIRECTION = -1;
 
-    private GridObjectAdapter mAdapter;
+    private ObjectAdapter mAdapter;
 
     private BaseGridView mBaseRecyclerView;
 
@@ -47,7 +54,17 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     /**
      * save items layout param
      */
-    private final SparseArray<Rect> mItemsRect;
+    private final ItemFrameStore mItemFrames;
+
+    /**
+     * re-used list of the positions in display area
+     */
+    private final PositionList mDisplayPositions = new PositionList();
+
+    /**
+     * re-used list of the child indexes need to be recycled
+     */
+    private final PositionList mRecycleIndexes = new PositionList();
 
     /**
      * offset in horizontal direction
@@ -97,6 +114,26 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
      */
     private final Rect mDecorInsets = new Rect();
 
+    /**
+     * re-used variable to hold the frame of the item being laid out
+     */
+    private final Rect mTempFrame = new Rect();
+
+    /**
+     * re-used variable to hold the display area
+     */
+    private final Rect mDisplayRect = new Rect();
+
+    /**
+     * re-used variable to hold the visible area of the focused child
+     */
+    private final Rect mVisibleRect = new Rect();
+
+    /**
+     * re-used scroll vector of the smooth scroller
+     */
+    private final PointF mScrollVector = new PointF();
+
     /**
      * Temporary variable: an int array of length=2.
      */
@@ -107,6 +144,16 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
      */
     private boolean mFocusSearchDisabled = false;
 
+    /**
+     * Moves the focus from the frames of the items.
+     */
+    private final FocusNavigator mFocusNavigator = new FocusNavigator();
+
+    /**
+     * The predicted frames searched by the focus while some items have no saved frame.
+     */
+    private final ItemFrameStore mFocusFrames = new ItemFrameStore(true);
+
     /**
      * override child visibility
      */
@@ -120,6 +167,12 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
 
     private boolean mIsSlidingChildViews = false;
 
+    /**
+     * Gives the children back to the view pool when detached from the window,
+     * so that the grid views sharing the pool can reuse them.
+     */
+    private boolean mRecycleChildrenOnDetach;
+
     /**
      * The focused position, it's not the currently visually aligned position
      * but it is the final position that we intend to focus on.
@@ -132,6 +185,11 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
      */
     private int mSubFocusPosition = 0;
 
+    /**
+     * State restored from the view hierarchy, applied by the next layout with items.
+     */
+    private SavedState mPendingSavedState;
+
     /**
      * Extra pixels applied on primary direction.
      */
@@ -168,6 +226,88 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
 
     private OnFocusSearchFailedListener mFocusSearchFailedListener;
 
+    /**
+     * Computes the frames of all irregular items off the main thread.
+     */
+    private final GridLayoutPlanner mPlanner;
+
+    /**
+     * The spec of the current irregular layout, null before the first child is laid out.
+     */
+    private GridFrameSpec mFrameSpec;
+
+    /**
+     * The frames delivered by mPlanner, null if there are none for the current layout.
+     */
+    private FramePlan mFramePlan;
+
+    /**
+     * Whether mFramePlan has been copied into mItemFrames.
+     */
+    private boolean mFramePlanApplied;
+
+    /**
+     * Set by swapAdapter, the frames kept are still valid after the data set change.
+     */
+    private boolean mKeepFramesOnItemsChanged;
+
+    /**
+     * What the frames of the last layout are computed from, the frames are
+     * dropped when any of it changes.
+     */
+    private final int[] mLayoutGeometry = new int[LAYOUT_GEOMETRY_SIZE];
+
+    private static final int LAYOUT_GEOMETRY_SIZE = 14;
+
+    /**
+     * A smooth selection jumps instead of crawling when the target is more than
+     * this number of items away from the attached items, 0 means never.
+     */
+    private int mSelectionJumpThreshold = 0;
+
+    /**
+     * Whether a jump ends with a short animation towards the target.
+     */
+    private boolean mSelectionJumpSettle = true;
+
+    /**
+     * The distance left to scroll by the settle animation after a jump.
+     */
+    private int mPendingSettleDistance;
+
+    /**
+     * Max number of items prefetched beyond the viewport, 0 means one row or column
+     * of a regular grid and the items within one cell of an irregular grid.
+     */
+    private int mPrefetchItemCount = 0;
+
+    /**
+     * Upper bound of the items prefetched for an irregular grid by default.
+     */
+    private static final int MAX_DEFAULT_PREFETCH_ITEM_COUNT = 16;
+
+    /**
+     * Receives the layout, fill, recycle, scroll and focus phases, null when not traced.
+     */
+    private GridTracer mTracer;
+
+    private BaseGridView.OnLayoutMetricsListener mMetricsListener;
+
+    /**
+     * Counters of the current pass, null when no listener is set.
+     */
+    private GridLayoutMetrics mMetrics;
+
+    /**
+     * Start time of the current layout or scroll pass, 0 when not in a pass.
+     */
+    private long mMetricsPassStart;
+
+    /**
+     * Event time of the last key pressed, 0 when there is no focus move to report.
+     */
+    private long mPendingKeyEventTime;
+
     GridLayoutManager(BaseGridView recyclerView) {
         this(recyclerView, HORIZONTAL);
     }
@@ -175,9 +315,18 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     GridLayoutManager(BaseGridView recyclerView, int orientation) {
         mBaseRecyclerView = recyclerView;
         mOrientation = orientation;
-        mItemsRect = new SparseArray<>();
+        mItemFrames = new ItemFrameStore(orientation == HORIZONTAL);
         mChildVisibility = -1;
         mAdapter = new GridObjectAdapter();
+        mPlanner = new GridLayoutPlanner(new GridLayoutPlanner.Callback() {
+            @Override
+            public void onFramePlanReady(FramePlan plan) {
+                if (plan.matches(mFrameSpec, getItemCount(), mOrientation == HORIZONTAL)) {
+                    mFramePlan = plan;
+                    mFramePlanApplied = false;
+                }
+            }
+        });
     }
 
     /**
@@ -188,13 +337,9 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     private void initItemRowColumnSize(int width) {
         int maxRowOrColumn = mAdapter.getColumns();
         if (maxRowOrColumn > 0) {
-            mOriItemWidth = (width - (maxRowOrColumn - 1) * mAdapter.getColumnSpacing()
-                    - getPaddingLeft() - getPaddingRight()) / maxRowOrColumn;
-            mOriItemHeight = mOriItemWidth / mAdapter.getAspectRatio();
-            if (DEBUG) {
-                Log.i(TAG, "initItemRowColumnSize: mOriItemWidth= " + mOriItemWidth +
-                        "=mOriItemHeight=" + mOriItemHeight);
-            }
+            mOriItemWidth = GridGeometry.getCellWidth(width, maxRowOrColumn,
+                    mAdapter.getColumnSpacing(), getPaddingLeft(), getPaddingRight());
+            mOriItemHeight = GridGeometry.getCellHeight(mOriItemWidth, mAdapter.getAspectRatio());
         }
     }
 
@@ -205,7 +350,7 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     }
 
     private boolean hasDoneFirstLayout() {
-        return mItemsRect.size() > 0;
+        return mItemFrames.size() > 0;
     }
 
     @Override
@@ -216,9 +361,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         initItemRowColumnSize(width);
         int height = chooseMeasureSize(heightSpec, getPaddingTop() + getPaddingBottom(),
                 ViewCompat.getMinimumHeight(mBaseRecyclerView), false);
-        if (DEBUG) {
-            Log.i(TAG, "onMeasure: width=" + width + "=height=" + height);
-        }
         setMeasuredDimension(width, height);
     }
 
@@ -257,9 +399,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
                         + (mDecorInsets.left + mDecorInsets.right) * (mNumRowOrColumn - 1);
             }
         }
-        if (DEBUG) {
-            Log.i(TAG, "calculateMeasureWidth: width==" + width);
-        }
         return width;
     }
 
@@ -277,21 +416,27 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
                         + (mDecorInsets.top + mDecorInsets.bottom) * (mNumRowOrColumn - 1);
             }
         }
-        if (DEBUG) {
-            Log.i(TAG, "calculateMeasureHeight: height==" + height);
-        }
         return height;
     }
 
     @Override
     public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+        final GridTracer tracer = mTracer;
+        final boolean measured = beginMetricsPass(GridLayoutMetrics.PASS_LAYOUT);
+        if (tracer != null) {
+            tracer.beginSection(GridTracer.SECTION_LAYOUT);
+        }
         layoutChildren(recycler, state);
+        if (tracer != null) {
+            tracer.endSection();
+            tracer.setCounter(GridTracer.COUNTER_CHILD_COUNT, getChildCount());
+        }
+        if (measured) {
+            endMetricsPass();
+        }
     }
 
     private void layoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
-        if (DEBUG) {
-            Log.d(TAG, "layoutChildren: state.isPreLayout=" + state.isPreLayout());
-        }
 
         final int newItemCount = state.getItemCount();
 
@@ -299,7 +444,12 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             mFocusPosition = NO_POSITION;
             removeAndRecycleAllViews(recycler);
             return;
-        } else if (mFocusPosition >= newItemCount) {
+        }
+        if (mPendingSavedState != null) {
+            mFocusPosition = mPendingSavedState.mFocusPosition;
+            mSubFocusPosition = mPendingSavedState.mSubFocusPosition;
+        }
+        if (mFocusPosition >= newItemCount) {
             mFocusPosition = newItemCount - 1;
         } else if (mFocusPosition == NO_POSITION && newItemCount > 0) {
             // if focus position is never set before,  initialize it to 0
@@ -312,12 +462,23 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
 
         mInLayout = true;
         mExtraChildHeight = getChildExtraHeight();
-        if (DEBUG) {
-            Log.d(TAG, "layoutChildren: extra child height=" + mExtraChildHeight);
+        boolean geometryChanged = saveLayoutGeometry();
+        if (getChildCount() > 0 && mAdapter.getColumns() > 0) {
+            GridFrameSpec spec = createFrameSpec(getChildAt(0));
+            geometryChanged |= !spec.equals(mFrameSpec);
+            mFrameSpec = spec;
         }
+        if (geometryChanged) {
+            invalidateItemFrames(0);
+        }
+        keepFocusViewInPlace();
         detachAndScrapAttachedViews(recycler);
-        mItemsRect.clear();
+        applyFramePlan();
+        if (mPendingSavedState != null && !state.isPreLayout()) {
+            applySavedState(recycler);
+        }
         fill(recycler, state);
+        requestFramePlan();
         // appends items till focus position.
         if (mFocusPosition != NO_POSITION) {
             View focusView = findViewByPosition(mFocusPosition);
@@ -333,6 +494,59 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         mInLayout = false;
     }
 
+    /**
+     * Saves what the frames are computed from.
+     * @return true if it has changed since the last layout
+     */
+    private boolean saveLayoutGeometry() {
+        boolean changed = setLayoutGeometry(0, getWidth());
+        changed |= setLayoutGeometry(1, getHeight());
+        changed |= setLayoutGeometry(2, getPaddingLeft());
+        changed |= setLayoutGeometry(3, getPaddingTop());
+        changed |= setLayoutGeometry(4, getPaddingRight());
+        changed |= setLayoutGeometry(5, getPaddingBottom());
+        changed |= setLayoutGeometry(6, mNumRowOrColumn);
+        changed |= setLayoutGeometry(7, Float.floatToIntBits(mOriItemWidth));
+        changed |= setLayoutGeometry(8, Float.floatToIntBits(mOriItemHeight));
+        changed |= setLayoutGeometry(9, mExtraChildHeight);
+        changed |= setLayoutGeometry(10, mGravity);
+        changed |= setLayoutGeometry(11, mAdapter.getColumns());
+        changed |= setLayoutGeometry(12, mAdapter.getColumnSpacing());
+        changed |= setLayoutGeometry(13, mAdapter.getRowSpacing());
+        return changed;
+    }
+
+    private boolean setLayoutGeometry(int index, int value) {
+        if (mLayoutGeometry[index] == value) {
+            return false;
+        }
+        mLayoutGeometry[index] = value;
+        return true;
+    }
+
+    /**
+     * When the frame of the focused item has been dropped, moves the scroll offset
+     * so that the focused view keeps its place on the screen.
+     */
+    private void keepFocusViewInPlace() {
+        if (mFocusPosition == NO_POSITION || mItemFrames.contains(mFocusPosition)) {
+            return;
+        }
+        View focusView = findViewByPosition(mFocusPosition);
+        if (focusView == null) {
+            return;
+        }
+        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) focusView.getLayoutParams();
+        Rect frame = calculateViewSizeByPosition(focusView, mFocusPosition, mTempFrame);
+        if (mOrientation == HORIZONTAL) {
+            int screenStart = focusView.getLeft() - lp.leftMargin;
+            mHorizontalOffset = Math.max(0, frame.left - screenStart);
+        } else {
+            int screenStart = focusView.getTop() - lp.topMargin;
+            mVerticalOffset = Math.max(0, frame.top - screenStart);
+        }
+    }
+
     /**
      * child view may be adjust own height when measure.
      * exc: Child add information area below.
@@ -405,12 +619,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             }
         }
 
-        if (DEBUG) {
-            Log.d(TAG, String.format(Locale.getDefault(), "fill=displayRect=%s " +
-                            "=itemTotalSize=%d, HorizontalOffset=%d, " +
-                            "VerticalOffset=%d", displayRect.toString(), mTotalSize,
-                    mHorizontalOffset, mVerticalOffset));
-        }
     }
 
     private boolean layoutChild(RecyclerView.Recycler recycler, Rect displayRect, int position) {
@@ -418,9 +626,22 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             return false;
         }
         View child = recycler.getViewForPosition(position);
-        Rect itemRect = calculateViewSizeByPosition(child, position);
+        Rect itemRect;
+        if (mItemFrames.contains(position)) {
+            // the frame is planned, only the child needs to be measured
+            measureChildByPosition(child, position);
+            itemRect = getItemFrame(position, mTempFrame);
+            if (mMetrics != null) {
+                mMetrics.mFrameCacheHits++;
+            }
+        } else {
+            itemRect = calculateViewSizeByPosition(child, position, mTempFrame);
+            if (mMetrics != null) {
+                mMetrics.mFrameCacheMisses++;
+            }
+        }
         if (!Rect.intersects(displayRect, itemRect)) {
-            recycler.recycleView(child);
+            recycleView(recycler, child);
             return false;
         }
         addView(child);
@@ -448,36 +669,161 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             }
         }
 
-        if (DEBUG) {
-            Log.d(TAG, "layoutChild: position=" + position
-                    + "=childRect=" + itemRect.toString());
-        }
         // Save the current Bound field data for the item view
-        Rect frame = mItemsRect.get(position);
-        if (frame == null) {
-            frame = new Rect();
-        }
-        frame.set(itemRect);
-        mItemsRect.put(position, frame);
+        saveItemFrame(position, itemRect);
         return true;
     }
 
+    private void saveItemFrame(int position, Rect frame) {
+        mItemFrames.put(position, frame.left, frame.top, frame.right, frame.bottom);
+    }
+
+    private Rect getItemFrame(int position, Rect frame) {
+        frame.set(mItemFrames.getLeft(position), mItemFrames.getTop(position),
+                mItemFrames.getRight(position), mItemFrames.getBottom(position));
+        return frame;
+    }
+
+    private void clearItemFrames() {
+        mItemFrames.clear();
+        mFramePlanApplied = false;
+    }
+
+    /**
+     * Drops the frames of the given position and all positions after it,
+     * the frames before it stay valid. The frame plan is dropped as well.
+     */
+    private void invalidateItemFrames(int position) {
+        mPlanner.cancel();
+        mFramePlan = null;
+        mFramePlanApplied = false;
+        if (mItemFrames.removeFrom(Math.max(position, 0))) {
+            mTotalSize = mItemFrames.getMaxEnd();
+        }
+    }
+
+    /**
+     * Creates the spec of the irregular layout, the given child must be laid out
+     * and all children are assumed to have the same decorations and margins.
+     */
+    private GridFrameSpec createFrameSpec(View child) {
+        calculateItemDecorationsForChild(child, mDecorInsets);
+        final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+        return new GridFrameSpec(mOriItemWidth, mOriItemHeight,
+                mAdapter.getColumnSpacing(), mAdapter.getRowSpacing(),
+                mDecorInsets.left, mDecorInsets.top, mDecorInsets.right, mDecorInsets.bottom,
+                lp.leftMargin, lp.topMargin, lp.rightMargin, lp.bottomMargin,
+                getPaddingLeft(), getPaddingTop(), mExtraChildHeight);
+    }
+
+    /**
+     * Starts planning the frames of all irregular items if there is no plan
+     * for the current spec and item count yet.
+     */
+    private void requestFramePlan() {
+        if (mAdapter.getColumns() <= 0 || getChildCount() <= 0) {
+            return;
+        }
+        if (mFrameSpec == null) {
+            mFrameSpec = createFrameSpec(getChildAt(0));
+        }
+        int itemCount = getItemCount();
+        boolean horizontal = mOrientation == HORIZONTAL;
+        if (mFramePlan != null && mFramePlan.matches(mFrameSpec, itemCount, horizontal)
+                || mPlanner.isPlanning(mFrameSpec, itemCount, horizontal)) {
+            return;
+        }
+        mFramePlan = null;
+        int[] spans = new int[itemCount * 4];
+        for (int i = 0; i < itemCount; i++) {
+            int offset = i * 4;
+            spans[offset] = mAdapter.getItemLeftIndex(i);
+            spans[offset + 1] = mAdapter.getItemTopIndex(i);
+            spans[offset + 2] = mAdapter.getItemColumnSize(i);
+            spans[offset + 3] = mAdapter.getItemRowSize(i);
+        }
+        mPlanner.plan(spans, itemCount, mFrameSpec, horizontal);
+    }
+
+    /**
+     * Copies the planned frames into mItemFrames, a plan that no longer
+     * matches the layout is dropped.
+     */
+    private void applyFramePlan() {
+        if (mFramePlan == null || mFramePlanApplied) {
+            return;
+        }
+        if (!mFramePlan.matches(mFrameSpec, getItemCount(), mOrientation == HORIZONTAL)) {
+            mFramePlan = null;
+            return;
+        }
+        mItemFrames.copyFrom(mFramePlan.getFrames());
+        mTotalSize = Math.max(mTotalSize, mFramePlan.getTotalSize());
+        mFramePlanApplied = true;
+    }
+
+    /**
+     * Finds the laid out items which intersect the display area.
+     * @param displayRect display area
+     * @param out save the positions in ascending order
+     */
+    private void findDisplayPositions(Rect displayRect, PositionList out) {
+        mItemFrames.query(displayRect.left, displayRect.top, displayRect.right,
+                displayRect.bottom, out);
+    }
+
+    /**
+     * Adds the view of a laid out item back to the display area.
+     * @param index position to add the view at, -1 means the end
+     */
+    private void addViewByFrame(RecyclerView.Recycler recycler, int position, int index) {
+        View scrap = recycler.getViewForPosition(position);
+        measureChildByPosition(scrap, position);
+        if (mMetrics != null) {
+            mMetrics.mFrameCacheHits++;
+        }
+        addView(scrap, index);
+        if (mOrientation == HORIZONTAL) {
+            layoutDecoratedWithMargins(scrap,
+                    mItemFrames.getLeft(position) - mHorizontalOffset,
+                    mItemFrames.getTop(position),
+                    mItemFrames.getRight(position) - mHorizontalOffset,
+                    mItemFrames.getBottom(position));
+        } else {
+            layoutDecoratedWithMargins(scrap,
+                    mItemFrames.getLeft(position),
+                    mItemFrames.getTop(position) - mVerticalOffset,
+                    mItemFrames.getRight(position),
+                    mItemFrames.getBottom(position) - mVerticalOffset);
+        }
+    }
+
+    private void measureChildByPosition(View child, int position) {
+        if (mAdapter.getColumns() > 0) {
+            calculateItemDecorationsForChild(child, mDecorInsets);
+            measureChild(child, getItemWidth(position), getItemHeight(position));
+        } else {
+            measureChild(child);
+        }
+    }
+
     @Override
     public void layoutDecoratedWithMargins(View child, int left, int top, int right, int bottom) {
         RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams)child.getLayoutParams();
-        Rect insets = new Rect();
         calculateItemDecorationsForChild(child, mDecorInsets);
-        child.layout(left + insets.left + lp.leftMargin, top + insets.top + lp.topMargin,
-                right - insets.right - lp.rightMargin, bottom - insets.bottom - lp.bottomMargin);
+        // the frames have already reserved the space of decorations
+        child.layout(left + lp.leftMargin, top + lp.topMargin,
+                right - lp.rightMargin, bottom - lp.bottomMargin);
     }
 
     /**
      * Calculates the item layout size
      * @param child The child view should be calculated
      * @param position child position
-     * @return The Rect to hold result values
+     * @param childFrame The Rect to hold result values
+     * @return childFrame
      */
-    private Rect calculateViewSizeByPosition(View child, int position) {
+    private Rect calculateViewSizeByPosition(View child, int position, Rect childFrame) {
         if (position >= getItemCount()) {
             throw new IllegalArgumentException("position outside of itemCount position is "
                     + position + " itemCount is " + getItemCount());
@@ -485,28 +831,16 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
 
         int leftOffset;
         int topOffset;
-        Rect childFrame = new Rect();
         calculateItemDecorationsForChild(child, mDecorInsets);
         if (mAdapter.getColumns() > 0) {
             measureChild(child, getItemWidth(position), getItemHeight(position));
 
-            int lastPos = mAdapter.getItemLeftIndex(position);
-            int topPos = mAdapter.getItemTopIndex(position);
-
-            if (lastPos == 0) {
-                leftOffset = -mDecorInsets.left + getPaddingLeft();
-            } else {
-                leftOffset = (int) ((mOriItemWidth + getChildHorizontalPadding(child)) * lastPos
-                        - mDecorInsets.left + getPaddingLeft());
-            }
-
-            if (topPos == 0) {
-                topOffset = -mDecorInsets.top + getPaddingTop();
-            } else {
-                topOffset = (int) ((mOriItemHeight + getChildVerticalPadding(child)) * topPos
-                        - mDecorInsets.top + getPaddingTop()
-                        + mExtraChildHeight * mAdapter.getItemTopIndex(position));
-            }
+            leftOffset = GridGeometry.getIrregularFrameStart(mAdapter.getItemLeftIndex(position),
+                    mOriItemWidth, getChildHorizontalPadding(child), mDecorInsets.left,
+                    getPaddingLeft(), 0);
+            topOffset = GridGeometry.getIrregularFrameStart(mAdapter.getItemTopIndex(position),
+                    mOriItemHeight, getChildVerticalPadding(child), mDecorInsets.top,
+                    getPaddingTop(), mExtraChildHeight);
 
             int childHorizontalSpace = getDecoratedMeasurementHorizontal(child);
             int childVerticalSpace = getDecoratedMeasurementVertical(child);
@@ -520,17 +854,14 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             int leftIndex;
             int topIndex;
 
-            if (mOrientation == HORIZONTAL) {
-                leftIndex = position / mNumRowOrColumn;
-                topIndex = position % mNumRowOrColumn;
-            } else {
-                leftIndex = position % mNumRowOrColumn;
-                topIndex = position / mNumRowOrColumn;
-            }
-            leftOffset = leftIndex * (child.getMeasuredWidth() + mDecorInsets.left + mDecorInsets.right)
-                    + getPaddingLeft();
-            topOffset = topIndex * (child.getMeasuredHeight() + mDecorInsets.top + mDecorInsets.bottom)
-                    + getPaddingTop();
+            leftIndex = GridGeometry.getRegularColumnIndex(position, mNumRowOrColumn,
+                    mOrientation == HORIZONTAL);
+            topIndex = GridGeometry.getRegularRowIndex(position, mNumRowOrColumn,
+                    mOrientation == HORIZONTAL);
+            leftOffset = GridGeometry.getRegularFrameStart(leftIndex, child.getMeasuredWidth(),
+                    mDecorInsets.left, mDecorInsets.right, getPaddingLeft());
+            topOffset = GridGeometry.getRegularFrameStart(topIndex, child.getMeasuredHeight(),
+                    mDecorInsets.top, mDecorInsets.bottom, getPaddingTop());
 
             final int verticalGravity = mGravity & Gravity.VERTICAL_GRAVITY_MASK;
             final int horizontalGravity = mGravity & Gravity.HORIZONTAL_GRAVITY_MASK;
@@ -556,20 +887,22 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         return childFrame;
     }
 
+    /**
+     * Returns the display area, the Rect is re-used by every call.
+     */
     private Rect getDisplayRect() {
-        Rect displayFrame;
         if (mOrientation == HORIZONTAL) {
-            displayFrame = new Rect(mHorizontalOffset - getPaddingLeft(),
+            mDisplayRect.set(mHorizontalOffset - getPaddingLeft(),
                     getPaddingTop(),
                     mHorizontalOffset + getPaddingLeft() + getHorizontalSpace() + mExpandSpace,
                     getVerticalSpace() + getPaddingTop());
         } else {
-            displayFrame = new Rect(getPaddingLeft(),
+            mDisplayRect.set(getPaddingLeft(),
                     mVerticalOffset - getPaddingTop(),
                     getPaddingLeft() + getHorizontalSpace(),
                     mVerticalOffset + getPaddingTop() + getVerticalSpace() + mExpandSpace);
         }
-        return displayFrame;
+        return mDisplayRect;
     }
 
     /**
@@ -581,143 +914,126 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         if (state.isPreLayout()) {
             return;
         }
+        final GridTracer tracer = mTracer;
+        if (tracer != null) {
+            tracer.beginSection(GridTracer.SECTION_RECYCLE);
+        }
         recycleByScrollState(recycler, dt);
+        if (tracer != null) {
+            tracer.endSection();
+            tracer.setCounter(GridTracer.COUNTER_RECYCLED, mRecycleIndexes.size());
+            tracer.beginSection(GridTracer.SECTION_FILL);
+        }
 
         if (dt >= 0) {
             fillEnd(recycler);
         } else {
             fillStart(recycler);
         }
+        if (tracer != null) {
+            tracer.endSection();
+            tracer.setCounter(GridTracer.COUNTER_CHILD_COUNT, getChildCount());
+        }
     }
 
     private void fillEnd(RecyclerView.Recycler recycler) {
         int beginPos = findLastViewLayoutPosition() + 1;
-        if (DEBUG) {
-            Log.d(TAG, "fillEnd: beginPos=" + beginPos);
-        }
         int itemCount = getItemCount();
         Rect displayRect = getDisplayRect();
-        int rectCount;
-        // Re-display the subview that needs to appear on the screen
-        for (int i = beginPos; i < itemCount; i++) {
-            rectCount = mItemsRect.size();
-            Rect frame = mItemsRect.get(i);
-            if (frame != null && i < rectCount) {
-                if (Rect.intersects(displayRect, frame)) {
-                    View scrap = recycler.getViewForPosition(i);
-                    if (mAdapter.getColumns() > 0) {
-                        measureChild(scrap, getItemWidth(i), getItemHeight(i));
-                    } else {
-                        measureChild(scrap);
-                    }
-                    addView(scrap);
-                    if (mOrientation == HORIZONTAL) {
-                        layoutDecoratedWithMargins(scrap,
-                                frame.left - mHorizontalOffset,
-                                frame.top,
-                                frame.right - mHorizontalOffset,
-                                frame.bottom);
-                    } else {
-                        layoutDecoratedWithMargins(scrap,
-                                frame.left,
-                                frame.top - mVerticalOffset,
-                                frame.right,
-                                frame.bottom - mVerticalOffset);
-                    }
-                    if (DEBUG) {
-                        Log.d(TAG, "fillEnd: scroll down/right recycle=i=" + i
-                                + "=rectCount=" + rectCount);
-                    }
-                }
-            } else if (rectCount < itemCount) {
-                View child = recycler.getViewForPosition(i);
-                Rect itemRect = calculateViewSizeByPosition(child, i);
-                if (!Rect.intersects(displayRect, itemRect)) {
-                    recycler.recycleView(child);
-                    return;
-                }
-                addView(child);
-                if (mOrientation == HORIZONTAL) {
-                    layoutDecoratedWithMargins(child,
-                            itemRect.left - mHorizontalOffset,
-                            itemRect.top,
-                            itemRect.right - mHorizontalOffset,
-                            itemRect.bottom);
-                    mTotalSize = itemRect.right;
-                } else {
-                    layoutDecoratedWithMargins(child,
-                            itemRect.left,
-                            itemRect.top - mVerticalOffset,
-                            itemRect.right,
-                            itemRect.bottom - mVerticalOffset);
-                    mTotalSize = itemRect.bottom;
-                }
-
-                mItemsRect.put(i, itemRect);
-                if (DEBUG) {
-                    Log.d(TAG, "fillEnd: scroll down/right new item=i=" + i
-                            + "=rectCount=" + rectCount);
+        applyFramePlan();
+        // Re-display the laid out items that need to appear on the screen
+        findDisplayPositions(displayRect, mDisplayPositions);
+        for (int k = 0, size = mDisplayPositions.size(); k < size; k++) {
+            int i = mDisplayPositions.get(k);
+            if (i < beginPos || i >= itemCount || findViewByPosition(i) != null) {
+                continue;
+            }
+            addViewByFrame(recycler, i, -1);
+        }
+
+        // Lay out the items whose frames are unknown
+        for (int i = mItemFrames.nextAbsentPosition(beginPos); i < itemCount; i++) {
+            if (mItemFrames.contains(i)) {
+                // it has been re-displayed above if it is on the screen
+                if (mItemFrames.intersects(i, displayRect.left, displayRect.top,
+                        displayRect.right, displayRect.bottom)) {
+                    continue;
                 }
+                return;
+            }
+            View child = recycler.getViewForPosition(i);
+            Rect itemRect = calculateViewSizeByPosition(child, i, mTempFrame);
+            if (mMetrics != null) {
+                mMetrics.mFrameCacheMisses++;
             }
+            if (!Rect.intersects(displayRect, itemRect)) {
+                recycleView(recycler, child);
+                return;
+            }
+            addView(child);
+            if (mOrientation == HORIZONTAL) {
+                layoutDecoratedWithMargins(child,
+                        itemRect.left - mHorizontalOffset,
+                        itemRect.top,
+                        itemRect.right - mHorizontalOffset,
+                        itemRect.bottom);
+                mTotalSize = itemRect.right;
+            } else {
+                layoutDecoratedWithMargins(child,
+                        itemRect.left,
+                        itemRect.top - mVerticalOffset,
+                        itemRect.right,
+                        itemRect.bottom - mVerticalOffset);
+                mTotalSize = itemRect.bottom;
+            }
+
+            saveItemFrame(i, itemRect);
         }
     }
 
     private void fillStart(RecyclerView.Recycler recycler) {
         int endPos = getPositionByView(getChildAt(1));
         Rect displayRect = getDisplayRect();
-        for (int i = endPos; i >= 0; i--) {
-            Rect frame = mItemsRect.get(i);
-            if (frame == null) {
-                layoutChild(recycler, displayRect, i);
-            } else if (Rect.intersects(displayRect, frame)) {
-                if (findViewByPosition(i) != null) {
-                    if (DEBUG) {
-                        Log.d(TAG, "fillStart: view is exist at i=" + i);
-                    }
+        // Re-display the laid out items that need to appear on the screen
+        findDisplayPositions(displayRect, mDisplayPositions);
+        for (int k = mDisplayPositions.size() - 1; k >= 0; k--) {
+            int i = mDisplayPositions.get(k);
+            if (i > endPos) {
+                continue;
+            }
+            if (findViewByPosition(i) != null) {
+                continue;
+            }
+            addViewByFrame(recycler, i, 0);
+        }
+
+        // Lay out the items whose frames are unknown
+        for (int i = mItemFrames.previousAbsentPosition(endPos); i >= 0; i--) {
+            if (mItemFrames.contains(i)) {
+                // it has been re-displayed above if it is on the screen
+                if (mItemFrames.intersects(i, displayRect.left, displayRect.top,
+                        displayRect.right, displayRect.bottom)) {
                     continue;
                 }
-                View scrap = recycler.getViewForPosition(i);
-                if (mAdapter.getColumns() > 0) {
-                    measureChild(scrap, getItemWidth(i), getItemHeight(i));
-                } else {
-                    measureChild(scrap);
-                }
-                addView(scrap, 0);
-                if (mOrientation == HORIZONTAL) {
-                    layoutDecoratedWithMargins(scrap,
-                            frame.left - mHorizontalOffset,
-                            frame.top,
-                            frame.right - mHorizontalOffset,
-                            frame.bottom);
-                } else {
-                    layoutDecoratedWithMargins(scrap,
-                            frame.left,
-                            frame.top - mVerticalOffset,
-                            frame.right,
-                            frame.bottom - mVerticalOffset);
-                }
-                if (DEBUG) {
-                    Log.d(TAG, "fillStart: scroll up/left recycle=i=" + i
-                            + "=frame=" + frame.toString() +
-                            "=mVerticalOffset=" + mVerticalOffset);
-                }
+                break;
+            }
+            if (!layoutChild(recycler, displayRect, i)) {
+                break;
             }
-        }
-        if (DEBUG) {
-            Log.d(TAG, "fillStart: endPos=" + endPos);
         }
     }
 
     private boolean recycleByScrollState(RecyclerView.Recycler recycler, int dt) {
         final int childCount = getChildCount();
-        ArrayList<Integer> recycleIndexList = new ArrayList<>();
+        final PositionList recycleIndexList = mRecycleIndexes;
+        recycleIndexList.clear();
         Rect displayRect = getDisplayRect();
+        findDisplayPositions(displayRect, mDisplayPositions);
         if (dt >= 0) {
             for (int i = 0; i < childCount; i++) {
                 View child = getChildAt(i);
                 int pos = getPositionByView(child);
-                Rect frame = mItemsRect.get(pos);
-                if (!Rect.intersects(displayRect, frame)) {
+                if (!mDisplayPositions.containsSorted(pos)) {
                     recycleIndexList.add(i);
                 }
             }
@@ -725,8 +1041,7 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             for (int i = childCount - 1; i >= 0; i--) {
                 View child = getChildAt(i);
                 int pos = getPositionByView(child);
-                Rect frame = mItemsRect.get(pos);
-                if (!Rect.intersects(displayRect, frame)) {
+                if (!mDisplayPositions.containsSorted(pos)) {
                     recycleIndexList.add(i);
                 }
             }
@@ -745,11 +1060,8 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
      * @param recycleIndexList   save need recycle index
      */
     private void recycleChildren(RecyclerView.Recycler recycler, int dt,
-                                 ArrayList<Integer> recycleIndexList) {
+                                 PositionList recycleIndexList) {
         int size = recycleIndexList.size();
-        if (DEBUG) {
-            Log.d(TAG, "recycleChildren: ===recycle " + size + " items.");
-        }
         if (dt < 0) {
             for (int i = 0; i < size; i++) {
                 int pos = recycleIndexList.get(i);
@@ -773,6 +1085,9 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     }
 
     private void measureChild(View child) {
+        if (mMetrics != null) {
+            mMetrics.mMeasureCount++;
+        }
         final ViewGroup.MarginLayoutParams lp = (ViewGroup.MarginLayoutParams) child.getLayoutParams();
         calculateItemDecorationsForChild(child, mDecorInsets);
         int widthUsed = lp.leftMargin + lp.rightMargin + mDecorInsets.left + mDecorInsets.right;
@@ -791,14 +1106,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             widthSpec = ViewGroup.getChildMeasureSpec(secondarySpec, widthUsed, lp.width);
         }
         child.measure(widthSpec, heightSpec);
-        if (DEBUG) {
-            Log.v(TAG, "measureChild secondarySpec " + Integer.toHexString(secondarySpec)
-                    + " widthSpec " + Integer.toHexString(widthSpec)
-                    + " heightSpec " + Integer.toHexString(heightSpec)
-                    + " measuredWidth " + child.getMeasuredWidth()
-                    + " measuredHeight " + child.getMeasuredHeight());
-        }
-        if (DEBUG) Log.v(TAG, "child lp width " + lp.width + " height " + lp.height);
     }
 
     /**
@@ -811,6 +1118,9 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
      * @param childHeight Height with child need
      */
     public void measureChild(View child, int childWidth, int childHeight) {
+        if (mMetrics != null) {
+            mMetrics.mMeasureCount++;
+        }
         final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
         calculateItemDecorationsForChild(child, mDecorInsets);
 
@@ -837,30 +1147,29 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             return 0;
         }
 
+        final GridTracer tracer = mTracer;
+        final boolean measured = beginMetricsPass(GridLayoutMetrics.PASS_SCROLL);
+        if (tracer != null) {
+            tracer.beginSection(GridTracer.SECTION_SCROLL);
+        }
         mInScroll = true;
-        int realOffset = dx;
         int maxScrollSpace = getMaxScrollDistance();
-        if (mHorizontalOffset + dx < 0) {
-            if (Math.abs(dx) > mHorizontalOffset) {
-                realOffset = -mHorizontalOffset;
-            } else {
-                realOffset -= mHorizontalOffset;
-            }
-        } else if (mItemsRect.size() >= getItemCount() && mHorizontalOffset + dx > maxScrollSpace) {
-            realOffset = maxScrollSpace - mHorizontalOffset;
-        }
+        int realOffset = GridGeometry.clampScroll(mHorizontalOffset, dx, maxScrollSpace,
+                mItemFrames.size() >= getItemCount());
 
-        if (DEBUG) {
-            Log.d(TAG, "scrollHorizontallyBy: dx=" + dx + "=realOffset=" + realOffset
-                    + "=HorizontalOffset=" + mHorizontalOffset +
-                    "=maxScrollSpace=" + maxScrollSpace);
-        }
         if (mHorizontalOffset != 0) {
             recycleAndFillViews(recycler, state, dx);
         }
         mHorizontalOffset += realOffset;
         offsetChildrenHorizontal(-realOffset);
         mInScroll = false;
+        if (tracer != null) {
+            tracer.endSection();
+            tracer.setCounter(GridTracer.COUNTER_SCROLL_OFFSET, mHorizontalOffset);
+        }
+        if (measured) {
+            endMetricsPass();
+        }
         return realOffset;
     }
 
@@ -875,31 +1184,29 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             return 0;
         }
 
+        final GridTracer tracer = mTracer;
+        final boolean measured = beginMetricsPass(GridLayoutMetrics.PASS_SCROLL);
+        if (tracer != null) {
+            tracer.beginSection(GridTracer.SECTION_SCROLL);
+        }
         mInScroll = true;
-        int realOffset = dy;
         int maxScrollSpace = getMaxScrollDistance();
+        int realOffset = GridGeometry.clampScroll(mVerticalOffset, dy, maxScrollSpace,
+                mItemFrames.size() >= getItemCount());
 
-        if (mVerticalOffset + dy < 0) {
-            if (Math.abs(dy) > mVerticalOffset) {
-                realOffset = -mVerticalOffset;
-            } else {
-                realOffset -= mVerticalOffset;
-            }
-        } else if (mItemsRect.size() >= getItemCount() && mVerticalOffset + dy > maxScrollSpace) {
-            realOffset = maxScrollSpace - mVerticalOffset;
-        }
-
-        if (DEBUG) {
-            Log.d(TAG, "scrollVerticallyBy: dy=" + dy + "=realOffset=" + realOffset
-                    + "=VerticalOffset=" + mVerticalOffset +
-                    "=maxScrollSpace=" + maxScrollSpace);
-        }
         if (mVerticalOffset != 0) {
             recycleAndFillViews(recycler, state, dy);
         }
         mVerticalOffset += realOffset;
         offsetChildrenPrimary(-realOffset);
         mInScroll = false;
+        if (tracer != null) {
+            tracer.endSection();
+            tracer.setCounter(GridTracer.COUNTER_SCROLL_OFFSET, mVerticalOffset);
+        }
+        if (measured) {
+            endMetricsPass();
+        }
         return realOffset;
     }
 
@@ -908,10 +1215,216 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         setSelection(mBaseRecyclerView, position, mSubFocusPosition, false, mPrimaryScrollExtra);
     }
 
+    @Override
+    public void collectAdjacentPrefetchPositions(int dx, int dy, RecyclerView.State state,
+                                                 LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        int delta = mOrientation == HORIZONTAL ? dx : dy;
+        if (delta == 0) {
+            // not scrolling, prefetch where the focus moves to
+            delta = getFocusPrimaryDirection();
+        }
+        final int itemCount = state.getItemCount();
+        if (delta == 0 || getChildCount() == 0 || itemCount == 0) {
+            return;
+        }
+        final boolean irregular = mAdapter.getColumns() > 0;
+        // in page scroll mode the whole next page is bound ahead, between the frames
+        final boolean pageScroll = mFocusScrollStrategy == BaseGridView.FOCUS_SCROLL_PAGE;
+        final boolean limitByCell = mPrefetchItemCount <= 0 && irregular && !pageScroll;
+        final int pageLength = getClientSize();
+        int maxCount = mPrefetchItemCount;
+        if (pageScroll) {
+            maxCount = itemCount;
+        } else if (maxCount <= 0) {
+            maxCount = irregular ? MAX_DEFAULT_PREFETCH_ITEM_COUNT : mNumRowOrColumn;
+        }
+        final int cellLength = (int) (mOrientation == HORIZONTAL ? mOriItemWidth : mOriItemHeight);
+        final Rect displayRect = getDisplayRect();
+        final int displayStart = mOrientation == HORIZONTAL ? displayRect.left : displayRect.top;
+        final int displayEnd = mOrientation == HORIZONTAL ? displayRect.right : displayRect.bottom;
+        final int step = delta > 0 ? 1 : -1;
+        int position = delta > 0 ? getAttachedPositionBound(true) + 1
+                : getAttachedPositionBound(false) - 1;
+        for (int count = 0; count < maxCount && position >= 0 && position < itemCount;
+             count++, position += step) {
+            int distance = 0;
+            Rect frame = getPredictedFrame(position, mTempFrame);
+            if (frame != null) {
+                if (mOrientation == HORIZONTAL) {
+                    distance = delta > 0 ? frame.left - displayEnd : displayStart - frame.right;
+                } else {
+                    distance = delta > 0 ? frame.top - displayEnd : displayStart - frame.bottom;
+                }
+                distance = Math.max(distance, 0);
+                if (limitByCell && distance > cellLength
+                        || pageScroll && distance >= pageLength) {
+                    break;
+                }
+            } else if (pageScroll) {
+                // the extent of the page is not known yet
+                break;
+            }
+            layoutPrefetchRegistry.addPosition(position, distance);
+        }
+    }
+
+    @Override
+    public void collectInitialPrefetchPositions(int adapterItemCount,
+                                                LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        int count = mPrefetchItemCount > 0 ? mPrefetchItemCount
+                : Math.max(mNumRowOrColumn, mAdapter.getColumns());
+        int start = mFocusPosition == NO_POSITION ? 0
+                : Math.min(mFocusPosition, adapterItemCount - 1);
+        for (int i = Math.max(start, 0); i < adapterItemCount && i < start + count; i++) {
+            layoutPrefetchRegistry.addPosition(i, 0);
+        }
+    }
+
+    /**
+     * Returns 1 or -1 if the last focus search went to the end or the start
+     * in primary direction, otherwise 0.
+     */
+    private int getFocusPrimaryDirection() {
+        if (mOrientation == HORIZONTAL) {
+            return mDirection == View.FOCUS_RIGHT ? 1 : mDirection == View.FOCUS_LEFT ? -1 : 0;
+        }
+        return mDirection == View.FOCUS_DOWN ? 1 : mDirection == View.FOCUS_UP ? -1 : 0;
+    }
+
+    /**
+     * Returns the largest or the smallest position of attached children.
+     */
+    private int getAttachedPositionBound(boolean largest) {
+        int bound = largest ? -1 : Integer.MAX_VALUE;
+        for (int i = 0, childCount = getChildCount(); i < childCount; i++) {
+            int position = getPositionByView(getChildAt(i));
+            if (position == NO_POSITION) {
+                continue;
+            }
+            bound = largest ? Math.max(bound, position) : Math.min(bound, position);
+        }
+        return bound;
+    }
+
+    public void setPrefetchItemCount(int itemCount) {
+        mPrefetchItemCount = itemCount;
+    }
+
+    public int getPrefetchItemCount() {
+        return mPrefetchItemCount;
+    }
+
+    public void setTracer(GridTracer tracer) {
+        mTracer = tracer;
+    }
+
+    public GridTracer getTracer() {
+        return mTracer;
+    }
+
+    public void setOnLayoutMetricsListener(BaseGridView.OnLayoutMetricsListener listener) {
+        mMetricsListener = listener;
+        mMetrics = listener != null ? new GridLayoutMetrics() : null;
+        mMetricsPassStart = 0;
+        mPendingKeyEventTime = 0;
+    }
+
+    public BaseGridView.OnLayoutMetricsListener getOnLayoutMetricsListener() {
+        return mMetricsListener;
+    }
+
+    /**
+     * Starts counting a layout or scroll pass.
+     * @return false if no listener is set or a pass is already counted
+     */
+    private boolean beginMetricsPass(int passType) {
+        if (mMetrics == null || mMetricsPassStart != 0) {
+            return false;
+        }
+        mMetrics.reset(passType);
+        mMetricsPassStart = System.nanoTime();
+        return true;
+    }
+
+    private void endMetricsPass() {
+        if (mMetrics == null) {
+            // the listener was removed during the pass
+            return;
+        }
+        mMetrics.mFillTimeNanos = System.nanoTime() - mMetricsPassStart;
+        mMetricsPassStart = 0;
+        mMetricsListener.onLayoutPass(mMetrics);
+    }
+
+    /**
+     * Called by {@link ItemBridgeAdapter} when a view is bound to an item.
+     */
+    void onChildBound() {
+        if (mMetricsPassStart != 0) {
+            mMetrics.mChildrenRebound++;
+        }
+    }
+
+    /**
+     * Called on each key pressed while the grid view has focus.
+     */
+    void onKeyDown(long eventTime) {
+        if (mMetrics != null) {
+            mPendingKeyEventTime = eventTime;
+        }
+    }
+
+    /**
+     * Called on each key released, drops the key if it did not move the focus.
+     */
+    void onKeyUp() {
+        if (mBaseRecyclerView.getScrollState() == RecyclerView.SCROLL_STATE_IDLE) {
+            mPendingKeyEventTime = 0;
+        }
+    }
+
+    private void dispatchFocusSettled() {
+        if (mPendingKeyEventTime == 0 || mMetricsListener == null) {
+            return;
+        }
+        long latency = SystemClock.uptimeMillis() - mPendingKeyEventTime;
+        mPendingKeyEventTime = 0;
+        mMetricsListener.onFocusSettled(mFocusPosition, latency);
+    }
+
+    @Override
+    public void onScrollStateChanged(int state) {
+        if (state == RecyclerView.SCROLL_STATE_IDLE) {
+            dispatchFocusSettled();
+        }
+    }
+
+    @Override
+    public void addView(View child, int index) {
+        super.addView(child, index);
+        if (mMetrics != null) {
+            mMetrics.mChildrenAdded++;
+        }
+    }
+
+    @Override
+    public void removeAndRecycleViewAt(int index, RecyclerView.Recycler recycler) {
+        super.removeAndRecycleViewAt(index, recycler);
+        if (mMetrics != null) {
+            mMetrics.mChildrenRecycled++;
+        }
+    }
+
+    private void recycleView(RecyclerView.Recycler recycler, View child) {
+        recycler.recycleView(child);
+        if (mMetrics != null) {
+            mMetrics.mChildrenRecycled++;
+        }
+    }
+
     @Override
     public View onFocusSearchFailed(View focused, int direction, RecyclerView.Recycler recycler,
                                     RecyclerView.State state) {
-        if (DEBUG) Log.v(TAG, "onFocusSearchFailed direction " + direction);
         View view = null;
         int movement = getMovement(direction);
         final boolean isScroll = mBaseRecyclerView.getScrollState() != RecyclerView.SCROLL_STATE_IDLE;
@@ -928,7 +1441,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             mFocusSearchFailedListener.onFocusSearchFailed(focused, direction, mFocusPosition,
                     state.getItemCount());
         }
-        if (DEBUG) Log.v(TAG, "onFocusSearchFailed returning view " + view);
         return view;
     }
 
@@ -981,7 +1493,111 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         if (mFocusSearchDisabled) {
             return focused;
         }
-        return null;
+        return findNextFocusByFrames(focused, direction);
+    }
+
+    /**
+     * Finds the next focus from the frames of the items, an item not attached yet is
+     * jumped to and focused when it is laid out.
+     * @return the view to focus, focused to keep the focus, or null to let the
+     * framework search when the frames can not be predicted or the focus leaves the grid
+     */
+    private View findNextFocusByFrames(View focused, int direction) {
+        if (mAdapter == null || getItemCount() == 0) {
+            return null;
+        }
+        int navigatorDirection;
+        switch (direction) {
+            case View.FOCUS_LEFT:
+                navigatorDirection = FocusNavigator.LEFT;
+                break;
+            case View.FOCUS_UP:
+                navigatorDirection = FocusNavigator.UP;
+                break;
+            case View.FOCUS_RIGHT:
+                navigatorDirection = FocusNavigator.RIGHT;
+                break;
+            case View.FOCUS_DOWN:
+                navigatorDirection = FocusNavigator.DOWN;
+                break;
+            default:
+                return null;
+        }
+        View itemView = findContainingItemView(focused);
+        if (itemView == null) {
+            return null;
+        }
+        int position = getPosition(itemView);
+        if (isSmoothScrolling() && mFocusPosition != NO_POSITION) {
+            // moves on from the item being scrolled to
+            position = mFocusPosition;
+        }
+        if (position == NO_POSITION) {
+            return null;
+        }
+        ItemFrameStore frames = getFocusFrames(position);
+        if (frames == null) {
+            return null;
+        }
+        boolean horizontal = mOrientation == HORIZONTAL;
+        int target = mFocusNavigator.findNeighbor(frames, horizontal, position,
+                navigatorDirection, frames == mItemFrames ? mTotalSize : frames.getMaxEnd());
+        if (target == NO_POSITION) {
+            boolean primary = horizontal == (direction == View.FOCUS_LEFT
+                    || direction == View.FOCUS_RIGHT);
+            boolean forward = direction == View.FOCUS_RIGHT || direction == View.FOCUS_DOWN;
+            if (primary && (forward ? !mFocusOutEnd : !mFocusOutFront)) {
+                return focused;
+            }
+            return null;
+        }
+        View targetView = findViewByPosition(target);
+        if (targetView != null && targetView.getVisibility() == View.VISIBLE
+                && targetView.hasFocusable()) {
+            return targetView;
+        }
+        // the next layout pass lays out and focuses it, then it settles into place
+        mFocusPosition = target;
+        mSubFocusPosition = 0;
+        if (!jumpToPosition(target, true)) {
+            requestLayout();
+        }
+        return focused;
+    }
+
+    /**
+     * Returns the frames to search the neighbors of the focused item in, the saved
+     * frames once all items have one, otherwise the predicted frames of the items
+     * around it.
+     * @return null if the frames can not be predicted yet
+     */
+    private ItemFrameStore getFocusFrames(int position) {
+        final int itemCount = getItemCount();
+        if (mItemFrames.size() >= itemCount) {
+            return mItemFrames;
+        }
+        int first;
+        int last;
+        if (mAdapter.getColumns() > 0) {
+            // the positions of an irregular grid are not ordered by their frames
+            first = 0;
+            last = itemCount - 1;
+        } else {
+            // the neighbors in a regular grid are in the lines next to the focused one
+            int line = position / mNumRowOrColumn;
+            first = Math.max((line - 1) * mNumRowOrColumn, 0);
+            last = Math.min((line + 2) * mNumRowOrColumn, itemCount) - 1;
+        }
+        mFocusFrames.setHorizontal(mOrientation == HORIZONTAL);
+        mFocusFrames.clear();
+        for (int i = first; i <= last; i++) {
+            Rect frame = getPredictedFrame(i, mTempFrame);
+            if (frame == null) {
+                return null;
+            }
+            mFocusFrames.put(i, frame.left, frame.top, frame.right, frame.bottom);
+        }
+        return mFocusFrames;
     }
 
     @Override
@@ -992,23 +1608,29 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         }
 
         if (getPosition(child) == NO_POSITION) {
-            if (DEBUG) {
-                Log.d(TAG, "onRequestChildFocus: getPosition error.");
-            }
             return true;
         }
         if (!mInLayout && !mInSelection && !mInScroll) {
-            if (DEBUG) {
-                Log.d(TAG, "onRequestChildFocus: call scrollToView.");
+            final GridTracer tracer = mTracer;
+            if (tracer != null) {
+                tracer.beginSection(GridTracer.SECTION_FOCUS);
             }
             scrollToView(child, true);
+            if (tracer != null) {
+                tracer.endSection();
+                tracer.setCounter(GridTracer.COUNTER_FOCUS_POSITION, mFocusPosition);
+            }
+            if (mBaseRecyclerView.getScrollState() == RecyclerView.SCROLL_STATE_IDLE) {
+                // the focused view is already in place
+                dispatchFocusSettled();
+            }
         }
         return true;
     }
 
     @Override
     public void onAdapterChanged(RecyclerView.Adapter oldAdapter, RecyclerView.Adapter newAdapter) {
-        if (DEBUG) Log.v(TAG, "onAdapterChanged to " + newAdapter);
+        mKeepFramesOnItemsChanged = false;
         if (oldAdapter != null) {
             discardLayoutInfo();
             mFocusPosition = NO_POSITION;
@@ -1016,6 +1638,104 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         super.onAdapterChanged(oldAdapter, newAdapter);
     }
 
+    @Override
+    public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+        invalidateItemFrames(positionStart);
+        if (mFocusPosition != NO_POSITION && mFocusPosition >= positionStart) {
+            mFocusPosition += itemCount;
+        }
+    }
+
+    @Override
+    public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int itemCount) {
+        invalidateItemFrames(positionStart);
+        if (mFocusPosition != NO_POSITION && mFocusPosition >= positionStart) {
+            if (mFocusPosition >= positionStart + itemCount) {
+                mFocusPosition -= itemCount;
+            } else {
+                // the focused item is removed, focus the item taking its place
+                mFocusPosition = positionStart;
+            }
+        }
+    }
+
+    @Override
+    public void onItemsUpdated(RecyclerView recyclerView, int positionStart, int itemCount) {
+        if (mAdapter == null || mAdapter.getColumns() <= 0) {
+            // the views of a regular grid are measured to the same size
+            return;
+        }
+        int changedPosition = findFirstSpanChange(positionStart, itemCount);
+        if (changedPosition != NO_POSITION) {
+            invalidateItemFrames(changedPosition);
+        }
+    }
+
+    /**
+     * Returns the first of the given items of an irregular grid whose span no longer
+     * matches its saved frame, or NO_POSITION if all of them still match.
+     */
+    private int findFirstSpanChange(int positionStart, int itemCount) {
+        if (mFrameSpec == null) {
+            return positionStart;
+        }
+        final int end = Math.min(positionStart + itemCount, getItemCount());
+        for (int i = positionStart; i < end; i++) {
+            if (!mItemFrames.contains(i)) {
+                return i;
+            }
+            int left = mFrameSpec.getFrameLeft(mAdapter.getItemLeftIndex(i));
+            int top = mFrameSpec.getFrameTop(mAdapter.getItemTopIndex(i));
+            if (mItemFrames.getLeft(i) != left || mItemFrames.getTop(i) != top
+                    || mItemFrames.getRight(i) != left
+                    + mFrameSpec.getFrameWidth(mAdapter.getItemColumnSize(i))
+                    || mItemFrames.getBottom(i) != top
+                    + mFrameSpec.getFrameHeight(mAdapter.getItemRowSize(i))) {
+                return i;
+            }
+        }
+        return NO_POSITION;
+    }
+
+    @Override
+    public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+        invalidateItemFrames(Math.min(from, to));
+        if (mFocusPosition == NO_POSITION) {
+            return;
+        }
+        if (mFocusPosition >= from && mFocusPosition < from + itemCount) {
+            mFocusPosition += to - from;
+        } else if (from < to && mFocusPosition >= from + itemCount
+                && mFocusPosition < to + itemCount) {
+            mFocusPosition -= itemCount;
+        } else if (from > to && mFocusPosition >= to && mFocusPosition < from) {
+            mFocusPosition += itemCount;
+        }
+    }
+
+    @Override
+    public void onItemsChanged(RecyclerView recyclerView) {
+        if (mKeepFramesOnItemsChanged) {
+            // revalidated by swapAdapter
+            mKeepFramesOnItemsChanged = false;
+            return;
+        }
+        invalidateItemFrames(0);
+    }
+
+    void setRecycleChildrenOnDetach(boolean recycleChildrenOnDetach) {
+        mRecycleChildrenOnDetach = recycleChildrenOnDetach;
+    }
+
+    @Override
+    public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
+        super.onDetachedFromWindow(view, recycler);
+        if (mRecycleChildrenOnDetach) {
+            removeAndRecycleAllViews(recycler);
+            recycler.clear();
+        }
+    }
+
     public void setFocusOutAllowed(boolean throughFront, boolean throughEnd) {
         mFocusOutFront = throughFront;
         mFocusOutEnd = throughEnd;
@@ -1026,12 +1746,237 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         mExtraChildHeight = 0;
         mHorizontalOffset = 0;
         mVerticalOffset = 0;
-        mItemsRect.clear();
+        clearItemFrames();
+        mPlanner.cancel();
+        mFrameSpec = null;
+        mFramePlan = null;
         mOriItemWidth = 0;
         mOriItemHeight = 0;
         mTotalSize = 0;
     }
 
+    @Override
+    public Parcelable onSaveInstanceState() {
+        if (mPendingSavedState != null) {
+            // not laid out since it was restored
+            return mPendingSavedState;
+        }
+        SavedState state = new SavedState();
+        state.mFocusPosition = mFocusPosition;
+        state.mSubFocusPosition = mSubFocusPosition;
+        state.mPrimaryOffset = mOrientation == HORIZONTAL ? mHorizontalOffset : mVerticalOffset;
+        if (mFocusPosition != NO_POSITION && mItemFrames.contains(mFocusPosition)) {
+            state.mFocusScreenStart = getItemFrameStart(mFocusPosition) - state.mPrimaryOffset;
+        }
+        return state;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (state instanceof SavedState) {
+            mPendingSavedState = (SavedState) state;
+            requestLayout();
+        }
+    }
+
+    /**
+     * Moves the display area to the restored state before the children are filled,
+     * the focused item is placed where it was on the screen even if its frame has
+     * changed, e.g. after a rotation.
+     */
+    private void applySavedState(RecyclerView.Recycler recycler) {
+        SavedState state = mPendingSavedState;
+        mPendingSavedState = null;
+        int offset = state.mPrimaryOffset;
+        if (state.mFocusScreenStart != SavedState.NO_SCREEN_START
+                && mFocusPosition == state.mFocusPosition) {
+            int frameStart;
+            if (mItemFrames.contains(mFocusPosition)) {
+                frameStart = getItemFrameStart(mFocusPosition);
+            } else {
+                // the view is reused by the fill below
+                View child = recycler.getViewForPosition(mFocusPosition);
+                Rect frame = calculateViewSizeByPosition(child, mFocusPosition, mTempFrame);
+                frameStart = mOrientation == HORIZONTAL ? frame.left : frame.top;
+                recycleView(recycler, child);
+            }
+            offset = frameStart - state.mFocusScreenStart;
+        }
+        offset = clampSavedOffset(recycler, offset);
+        if (mOrientation == HORIZONTAL) {
+            mHorizontalOffset = offset;
+        } else {
+            mVerticalOffset = offset;
+        }
+    }
+
+    /**
+     * Clamps a restored offset like {@link #clampJumpOffset(int)}, the content may be
+     * shorter than when the state was saved. The last item is measured if its frame
+     * can not be predicted.
+     */
+    private int clampSavedOffset(RecyclerView.Recycler recycler, int offset) {
+        final int itemCount = getItemCount();
+        if (mItemFrames.size() >= itemCount
+                || mAdapter.getColumns() > 0 && mFrameSpec != null) {
+            return clampJumpOffset(offset);
+        }
+        final int last = itemCount - 1;
+        Rect frame;
+        if (mItemFrames.contains(last)) {
+            frame = getItemFrame(last, mTempFrame);
+        } else {
+            // the view is reused by the fill if the end is displayed
+            View child = recycler.getViewForPosition(last);
+            frame = calculateViewSizeByPosition(child, last, mTempFrame);
+            recycleView(recycler, child);
+        }
+        int contentEnd = mOrientation == HORIZONTAL ? frame.right : frame.bottom;
+        return Math.max(Math.min(offset, contentEnd - getClientSize()), 0);
+    }
+
+    private int getItemFrameStart(int position) {
+        return mOrientation == HORIZONTAL ? mItemFrames.getLeft(position)
+                : mItemFrames.getTop(position);
+    }
+
+    /**
+     * The scroll state saved with the view hierarchy. The frames are not saved, the
+     * frame of the focused item is computed again from its spans, so the first layout
+     * after a restore starts at the saved item.
+     */
+    static final class SavedState implements Parcelable {
+
+        static final int NO_SCREEN_START = Integer.MIN_VALUE;
+
+        int mFocusPosition = NO_POSITION;
+
+        int mSubFocusPosition;
+
+        int mPrimaryOffset;
+
+        /**
+         * Start of the focused item in primary direction relative to the display area
+         */
+        int mFocusScreenStart = NO_SCREEN_START;
+
+        SavedState() {
+        }
+
+        SavedState(Parcel in) {
+            mFocusPosition = in.readInt();
+            mSubFocusPosition = in.readInt();
+            mPrimaryOffset = in.readInt();
+            mFocusScreenStart = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            out.writeInt(mFocusPosition);
+            out.writeInt(mSubFocusPosition);
+            out.writeInt(mPrimaryOffset);
+            out.writeInt(mFocusScreenStart);
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR =
+                new Parcelable.Creator<SavedState>() {
+                    @Override
+                    public SavedState createFromParcel(Parcel in) {
+                        return new SavedState(in);
+                    }
+
+                    @Override
+                    public SavedState[] newArray(int size) {
+                        return new SavedState[size];
+                    }
+                };
+    }
+
+    /**
+     * Saves the scroll offset, the focused item and the frames of the current adapter,
+     * the arrays of the state are reused.
+     */
+    void saveRowState(RowState state) {
+        if (state.mAdapter == null || state.mAdapter.get() != mAdapter) {
+            state.mAdapter = new WeakReference<>(mAdapter);
+        }
+        state.mModCount = mAdapter != null ? mAdapter.getModCount() : 0;
+        state.mItemCount = getItemCount();
+        state.mFocusPosition = mFocusPosition;
+        state.mSubFocusPosition = mSubFocusPosition;
+        state.mHorizontalOffset = mHorizontalOffset;
+        state.mVerticalOffset = mVerticalOffset;
+        state.mTotalSize = mTotalSize;
+        state.mOriItemWidth = mOriItemWidth;
+        state.mOriItemHeight = mOriItemHeight;
+        state.mExtraChildHeight = mExtraChildHeight;
+        if (state.mLayoutGeometry == null) {
+            state.mLayoutGeometry = new int[LAYOUT_GEOMETRY_SIZE];
+        }
+        System.arraycopy(mLayoutGeometry, 0, state.mLayoutGeometry, 0, LAYOUT_GEOMETRY_SIZE);
+        state.mFrameSpec = mFrameSpec;
+        if (mFramePlanApplied) {
+            // the plan is immutable and holds all the frames
+            state.mFramePlan = mFramePlan;
+        } else {
+            state.mFramePlan = null;
+            if (state.mFrames == null) {
+                state.mFrames = new ItemFrameStore(mOrientation == HORIZONTAL);
+            } else {
+                state.mFrames.setHorizontal(mOrientation == HORIZONTAL);
+            }
+            state.mFrames.copyFrom(mItemFrames);
+        }
+    }
+
+    /**
+     * Restores a state saved with {@link #saveRowState(RowState)} after the adapter
+     * has been set, the next layout starts from the saved offset. Only the focused
+     * item is restored if the items have changed since the state was saved.
+     * @return true if the frames are restored
+     */
+    boolean restoreRowState(RowState state) {
+        if (state.mLayoutGeometry == null) {
+            return false;
+        }
+        final int itemCount = getItemCount();
+        if (state.mFocusPosition < itemCount) {
+            mFocusPosition = state.mFocusPosition;
+            mSubFocusPosition = state.mSubFocusPosition;
+        } else {
+            // items have been removed since, the focus stays on the last one
+            mFocusPosition = itemCount > 0 ? itemCount - 1 : NO_POSITION;
+            mSubFocusPosition = 0;
+        }
+        if (state.mAdapter.get() != mAdapter || mAdapter == null
+                || state.mModCount != mAdapter.getModCount()
+                || state.mItemCount != itemCount) {
+            return false;
+        }
+        mHorizontalOffset = state.mHorizontalOffset;
+        mVerticalOffset = state.mVerticalOffset;
+        mTotalSize = state.mTotalSize;
+        mOriItemWidth = state.mOriItemWidth;
+        mOriItemHeight = state.mOriItemHeight;
+        mExtraChildHeight = state.mExtraChildHeight;
+        System.arraycopy(state.mLayoutGeometry, 0, mLayoutGeometry, 0, LAYOUT_GEOMETRY_SIZE);
+        mFrameSpec = state.mFrameSpec;
+        mPlanner.cancel();
+        mFramePlan = state.mFramePlan;
+        mFramePlanApplied = false;
+        if (mFramePlan != null) {
+            applyFramePlan();
+        } else if (state.mFrames != null) {
+            mItemFrames.copyFrom(state.mFrames);
+        }
+        return true;
+    }
+
     @Override
     public boolean onAddFocusables(RecyclerView recyclerView, ArrayList<View> views,
                                    int direction, int focusableMode) {
@@ -1041,8 +1986,8 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
 
         if (!recyclerView.hasFocus() && mFocusScrollStrategy != BaseGridView.FOCUS_SCROLL_ALIGNED) {
             int focusableCount = views.size();
+            Rect displayRect = getDisplayRect();
             for (int i = 0, count = getChildCount(); i < count; i++) {
-                Rect displayRect = getDisplayRect();
                 View child = getChildAt(i);
                 if (child.getVisibility() == View.VISIBLE) {
                     if (getViewMin(child) >= displayRect.left && getViewMax(child) <= displayRect.right) {
@@ -1081,10 +2026,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         }
 
         int newFocusPosition = getPositionByView(view);
-        if (DEBUG) {
-            Log.d(TAG, "scrollToView: newFocusPosition=" + newFocusPosition +
-                    "=mFocusPosition=" + mFocusPosition);
-        }
 
         if (newFocusPosition != mFocusPosition) {
             mFocusPosition = newFocusPosition;
@@ -1161,7 +2102,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     }
 
     private void forceRequestLayout() {
-        if (DEBUG) Log.v(TAG, "forceRequestLayout");
         ViewCompat.postOnAnimation(mBaseRecyclerView, mRequestLayoutRunnable);
     }
 
@@ -1190,23 +2130,17 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             default:
                 return getAlignedPosition(view, distanceInts);
             case BaseGridView.FOCUS_SCROLL_ITEM:
-            case BaseGridView.FOCUS_SCROLL_PAGE: // page scroll not achieve
+            case BaseGridView.FOCUS_SCROLL_PAGE:
                 return getNoneAlignedPosition(view, distanceInts);
         }
     }
 
     private boolean getAlignedPosition(View view, int[] distanceInts) {
         if (!isOverHalfScreen(view)) {
-            if (DEBUG) {
-                Log.d(TAG, "getAlignedPosition: is not over half screen.");
-            }
             return false;
         }
         int scrollPrimary = getAlignedScrollPrimary(view);
 
-        if (DEBUG) {
-            Log.d(TAG, "getAlignedPosition: scrollPrimary=" + scrollPrimary);
-        }
         if (scrollPrimary != 0) {
             distanceInts[0] = scrollPrimary;
             distanceInts[1] = scrollPrimary;
@@ -1217,27 +2151,24 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
 
     private boolean getNoneAlignedPosition(View view, int[] distanceInts) {
         if (!isCoverChild(view)) {
-            if (DEBUG) {
-                Log.d(TAG, "getNoneAlignedPosition: child is visible.");
-            }
             return false;
         }
-        if (mFocusScrollStrategy == BaseGridView.FOCUS_SCROLL_ITEM) {
-            int scrollPrimary = getNoneAlignedScrollPrimary(view);
-            if (DEBUG) {
-                Log.d(TAG, "getNoneAlignedPosition: scrollPrimary=" + scrollPrimary);
-            }
-            if (scrollPrimary != 0) {
-                distanceInts[0] = scrollPrimary;
-                distanceInts[1] = scrollPrimary;
-                return true;
-            }
+        int scrollPrimary;
+        if (mFocusScrollStrategy == BaseGridView.FOCUS_SCROLL_PAGE) {
+            scrollPrimary = getPageScrollPrimary(view);
+        } else {
+            scrollPrimary = getNoneAlignedScrollPrimary(view);
+        }
+        if (scrollPrimary != 0) {
+            distanceInts[0] = scrollPrimary;
+            distanceInts[1] = scrollPrimary;
+            return true;
         }
         return false;
     }
 
     private boolean isOverHalfScreen(View child) {
-        Rect ret = new Rect();
+        Rect ret = mVisibleRect;
         child.getGlobalVisibleRect(ret);
         int size = getClientSize();
         if (mOrientation == HORIZONTAL) {
@@ -1254,7 +2185,7 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
 
     private boolean isCoverChild(View child) {
         if (child != null) {
-            Rect ret = new Rect();
+            Rect ret = mVisibleRect;
             boolean isVisible = child.getGlobalVisibleRect(ret);
             if (!isVisible) {
                 return true;
@@ -1314,6 +2245,31 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         return distance;
     }
 
+    /**
+     * Returns the distance to scroll by whole client sizes until the view is on the
+     * display area. A view cut by the new page is aligned to its edge instead.
+     */
+    private int getPageScrollPrimary(View view) {
+        int viewMin = getDecoratedStart(view);
+        int viewMax = getDecoratedEnd(view);
+        int paddingLow = getPaddingLow();
+        int clientSize = getClientSize();
+        if (clientSize <= 0) {
+            return 0;
+        }
+        int distance;
+        if (viewMax > paddingLow + clientSize) {
+            distance = (viewMax - paddingLow - 1) / clientSize * clientSize;
+            distance = Math.min(distance, viewMin - paddingLow);
+        } else if (viewMin < paddingLow) {
+            distance = -((paddingLow - viewMin + clientSize - 1) / clientSize * clientSize);
+            distance = Math.max(distance, viewMax - paddingLow - clientSize);
+        } else {
+            distance = 0;
+        }
+        return distance;
+    }
+
     private int getPaddingLow() {
         if (mOrientation == HORIZONTAL) {
             return getPaddingLeft();
@@ -1323,13 +2279,7 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     }
 
     private int getMaxScrollDistance() {
-        int scrollDistance;
-        if (mOrientation == HORIZONTAL) {
-            scrollDistance = mTotalSize - getClientSize();
-        } else {
-            scrollDistance = mTotalSize - getClientSize();
-        }
-        return scrollDistance > 0 ? scrollDistance : 0;
+        return GridGeometry.getMaxScrollDistance(mTotalSize, getClientSize());
     }
 
     private int getClientSize() {
@@ -1431,10 +2381,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
 
     private void setSelection(RecyclerView parent, int position, int subPosition,
                               boolean smooth, int primaryScrollExtra) {
-        if (DEBUG) {
-            Log.d(TAG, "setSelection: mFocusPosition=" + mFocusPosition
-                    + "=position=" + position);
-        }
         if (mFocusPosition != position && position != NO_POSITION) {
             scrollToSelection(parent, position, subPosition, smooth, primaryScrollExtra);
         }
@@ -1452,7 +2398,12 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             if (mIsSlidingChildViews) {
                 return;
             }
-            if (smooth) {
+            if (!smooth) {
+                if (!jumpToPosition(position, false)) {
+                    parent.requestLayout();
+                }
+            } else if (!isFarFromAttachedItems(position)
+                    || !jumpToPosition(position, mSelectionJumpSettle)) {
                 if (!hasDoneFirstLayout()) {
                     Log.w(TAG, "setSelectionSmooth should "
                             + "not be called before first layout pass");
@@ -1463,12 +2414,154 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
                     // gets cropped by adapter size
                     mFocusPosition = position;
                 }
-            } else {
-                parent.requestLayout();
             }
         }
     }
 
+    private boolean isFarFromAttachedItems(int position) {
+        int childCount = getChildCount();
+        if (mSelectionJumpThreshold <= 0 || childCount == 0) {
+            return false;
+        }
+        int first = getPositionByView(getChildAt(0));
+        int last = getPositionByView(getChildAt(childCount - 1));
+        return position < Math.min(first, last) - mSelectionJumpThreshold
+                || position > Math.max(first, last) + mSelectionJumpThreshold;
+    }
+
+    /**
+     * Moves the scroll offset straight to the target computed from the item geometry,
+     * only the destination viewport is laid out by the next layout pass.
+     * @param settle lands one item short of the target and scrolls the rest smoothly
+     * @return false if the frame of the target can not be computed yet
+     */
+    private boolean jumpToPosition(int position, boolean settle) {
+        if (!hasDoneFirstLayout() || getChildCount() == 0) {
+            return false;
+        }
+        final boolean forward = position > getPositionByView(getChildAt(0));
+        Rect frame = getPredictedFrame(position, mTempFrame);
+        if (frame == null) {
+            return false;
+        }
+        final int start = mOrientation == HORIZONTAL ? frame.left : frame.top;
+        final int end = mOrientation == HORIZONTAL ? frame.right : frame.bottom;
+        int target;
+        if (mFocusScrollStrategy == BaseGridView.FOCUS_SCROLL_ALIGNED) {
+            target = (start + end) / 2 - getClientSize() / 2 - getPaddingLow();
+        } else if (forward) {
+            target = end - getPaddingLow() - getClientSize();
+        } else {
+            target = start - getPaddingLow();
+        }
+        int settleDistance = settle ? end - start : 0;
+        target = clampJumpOffset(target);
+        int landing = clampJumpOffset(forward ? target - settleDistance
+                : target + settleDistance);
+        if (mOrientation == HORIZONTAL) {
+            mHorizontalOffset = landing;
+        } else {
+            mVerticalOffset = landing;
+        }
+        mPendingSettleDistance = target - landing;
+        requestLayout();
+        return true;
+    }
+
+    private int clampJumpOffset(int offset) {
+        int itemCount = getItemCount();
+        if (mItemFrames.size() >= itemCount) {
+            offset = Math.min(offset, getMaxScrollDistance());
+        } else if (mAdapter.getColumns() <= 0) {
+            Rect lastFrame = getPredictedFrame(itemCount - 1, mVisibleRect);
+            if (lastFrame != null) {
+                int contentEnd = mOrientation == HORIZONTAL ? lastFrame.right : lastFrame.bottom;
+                offset = Math.min(offset, contentEnd - getClientSize());
+            }
+        }
+        return Math.max(offset, 0);
+    }
+
+    /**
+     * Returns the frame of an item which may not have been laid out.
+     * @return the frame, null if it can not be computed
+     */
+    private Rect getPredictedFrame(int position, Rect frame) {
+        if (mItemFrames.contains(position)) {
+            return getItemFrame(position, frame);
+        }
+        if (mAdapter.getColumns() > 0) {
+            if (mFrameSpec == null) {
+                return null;
+            }
+            int left = mFrameSpec.getFrameLeft(mAdapter.getItemLeftIndex(position));
+            int top = mFrameSpec.getFrameTop(mAdapter.getItemTopIndex(position));
+            frame.set(left, top,
+                    left + mFrameSpec.getFrameWidth(mAdapter.getItemColumnSize(position)),
+                    top + mFrameSpec.getFrameHeight(mAdapter.getItemRowSize(position)));
+            return frame;
+        }
+        // items of a regular grid share the size of the attached ones, the frame is
+        // moved from the one of the first child without measuring it again
+        View child = getChildAt(0);
+        int reference = getPositionByView(child);
+        if (reference == NO_POSITION || !mItemFrames.contains(reference)) {
+            return null;
+        }
+        getItemFrame(reference, frame);
+        final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+        final int horizontalPitch = frame.width() - lp.leftMargin - lp.rightMargin
+                + mDecorInsets.left + mDecorInsets.right;
+        final int verticalPitch = frame.height() - lp.topMargin - lp.bottomMargin
+                + mDecorInsets.top + mDecorInsets.bottom;
+        final boolean horizontal = mOrientation == HORIZONTAL;
+        int left = GridGeometry.getRegularFrameStart(
+                GridGeometry.getRegularColumnIndex(position, mNumRowOrColumn, horizontal),
+                GridGeometry.getRegularColumnIndex(reference, mNumRowOrColumn, horizontal),
+                frame.left, horizontalPitch);
+        int top = GridGeometry.getRegularFrameStart(
+                GridGeometry.getRegularRowIndex(position, mNumRowOrColumn, horizontal),
+                GridGeometry.getRegularRowIndex(reference, mNumRowOrColumn, horizontal),
+                frame.top, verticalPitch);
+        frame.offsetTo(left, top);
+        return frame;
+    }
+
+    @Override
+    public void onLayoutCompleted(RecyclerView.State state) {
+        super.onLayoutCompleted(state);
+        if (mPendingSettleDistance != 0) {
+            ViewCompat.postOnAnimation(mBaseRecyclerView, mSettleRunnable);
+        }
+    }
+
+    private final Runnable mSettleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            int distance = mPendingSettleDistance;
+            mPendingSettleDistance = 0;
+            if (distance != 0) {
+                scrollModule(distance, true);
+            }
+        }
+    };
+
+    public void setSelectionJumpThreshold(int threshold) {
+        mSelectionJumpThreshold = threshold;
+    }
+
+    public int getSelectionJumpThreshold() {
+        return mSelectionJumpThreshold;
+    }
+
+    public void setSelectionJumpSettle(boolean settle) {
+        mSelectionJumpSettle = settle;
+    }
+
+    public boolean isSelectionJumpSettle() {
+        return mSelectionJumpSettle;
+    }
+
     private int startPositionSmoothScroller(int position) {
         LinearSmoothScroller linearSmoothScroller = new GridLinearSmoothScroller() {
             @Override
@@ -1480,10 +2573,11 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
                 final boolean isStart = targetPosition < firstChildPos;
                 final int direction = isStart ? -1 : 1;
                 if (mOrientation == HORIZONTAL) {
-                    return new PointF(direction, 0);
+                    mScrollVector.set(direction, 0);
                 } else {
-                    return new PointF(0, direction);
+                    mScrollVector.set(0, direction);
                 }
+                return mScrollVector;
             }
 
             @Override
@@ -1596,6 +2690,8 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
             return;
         }
         mOrientation = orientation;
+        mItemFrames.setHorizontal(orientation == HORIZONTAL);
+        mFramePlanApplied = false;
     }
 
     public int getOrientation() {
@@ -1606,7 +2702,7 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         mNumRowOrColumn = numRowsOrColumns;
     }
 
-    void setAdapter(GridObjectAdapter adapter) {
+    void setAdapter(ObjectAdapter adapter) {
         if (adapter != null) {
             mAdapter = adapter;
         } else {
@@ -1614,6 +2710,64 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         }
     }
 
+    /**
+     * Drops the adapter when the grid view is given none, an empty one takes its place
+     * so that the layout never sees a null adapter.
+     */
+    void clearAdapter() {
+        mAdapter = new GridObjectAdapter();
+    }
+
+    /**
+     * Changes the adapter without a new adapter being set on the grid view. The frames
+     * from the first item whose spans differ are dropped, the other ones and the
+     * scroll offset are kept by the next {@link #onItemsChanged(RecyclerView)}.
+     * @param samePresenters true if the items of both adapters are shown by the same
+     *                       presenters
+     */
+    void swapAdapter(ObjectAdapter adapter, boolean samePresenters) {
+        int changedPosition = findFirstSpanChange(mAdapter, adapter, samePresenters);
+        mAdapter = adapter;
+        if (changedPosition != NO_POSITION) {
+            invalidateItemFrames(changedPosition);
+        }
+        mKeepFramesOnItemsChanged = true;
+    }
+
+    /**
+     * Returns the first position whose frame may differ between the adapters,
+     * or NO_POSITION if the frames of all items are the same.
+     */
+    private static int findFirstSpanChange(ObjectAdapter oldAdapter,
+                                           ObjectAdapter newAdapter,
+                                           boolean samePresenters) {
+        if (oldAdapter.getColumns() != newAdapter.getColumns()
+                || oldAdapter.getColumnSpacing() != newAdapter.getColumnSpacing()
+                || oldAdapter.getRowSpacing() != newAdapter.getRowSpacing()
+                || Float.compare(oldAdapter.getAspectRatio(), newAdapter.getAspectRatio()) != 0) {
+            return 0;
+        }
+        if (newAdapter.getColumns() <= 0 && !samePresenters) {
+            // the frames of a regular grid come from the measured views
+            return 0;
+        }
+        int oldSize = oldAdapter.size();
+        int newSize = newAdapter.size();
+        int size = Math.min(oldSize, newSize);
+        if (newAdapter.getColumns() > 0) {
+            for (int i = 0; i < size; i++) {
+                if (oldAdapter.getItemLeftIndex(i) != newAdapter.getItemLeftIndex(i)
+                        || oldAdapter.getItemTopIndex(i) != newAdapter.getItemTopIndex(i)
+                        || oldAdapter.getItemColumnSize(i) != newAdapter.getItemColumnSize(i)
+                        || oldAdapter.getItemRowSize(i) != newAdapter.getItemRowSize(i)) {
+                    return i;
+                }
+            }
+        }
+        // the views of a regular grid are measured to the same size by the same presenters
+        return oldSize == newSize ? NO_POSITION : size;
+    }
+
     boolean gridOnRequestFocusInDescendants(RecyclerView recyclerView, int direction,
                                             Rect previouslyFocusedRect) {
         switch (mFocusScrollStrategy) {
@@ -1633,9 +2787,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         View view = findViewByPosition(mFocusPosition);
         if (view != null) {
             boolean result = view.requestFocus(direction, previouslyFocusedRect);
-            if (!result && DEBUG) {
-                Log.w(TAG, "failed to request focus on " + view);
-            }
             return result;
         }
         return false;
@@ -1678,9 +2829,6 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     }
 
     public void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
-        if (DEBUG) {
-            Log.d(TAG, "onFocusChanged: gainFocus=" + gainFocus);
-        }
         if (gainFocus) {
             // if moduleRecyclerView.requestFocus() is called, select first focusable child.
             for (int i = mFocusPosition; ;i++) {
@@ -1760,17 +2908,13 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
     }
 
     private int getItemWidth(int position) {
-        int itemColumnSize = mAdapter.getItemColumnSize(position);
-        return (int) (itemColumnSize * mOriItemWidth
-                + (itemColumnSize - 1) * (mDecorInsets.left + mDecorInsets.right
-                + mAdapter.getColumnSpacing()));
+        return GridGeometry.getSpanLength(mAdapter.getItemColumnSize(position), mOriItemWidth,
+                mDecorInsets.left + mDecorInsets.right + mAdapter.getColumnSpacing());
     }
 
     private int getItemHeight(int position) {
-        int itemRowSize = mAdapter.getItemRowSize(position);
-        return (int) (itemRowSize * mOriItemHeight
-                + (itemRowSize - 1) * (mDecorInsets.bottom + mDecorInsets.top
-                + mAdapter.getRowSpacing()));
+        return GridGeometry.getSpanLength(mAdapter.getItemRowSize(position), mOriItemHeight,
+                mDecorInsets.bottom + mDecorInsets.top + mAdapter.getRowSpacing());
     }
 
     private int getMeasurementHorizontal(View view) {
@@ -1866,6 +3010,22 @@ final class GridLayoutManager extends RecyclerView.LayoutManager {
         mGravity = gravity;
     }
 
+    /**
+     * Returns true if the content is scrolled past the start of the display area.
+     */
+    boolean hasContentBeforeStart() {
+        return (mOrientation == HORIZONTAL ? mHorizontalOffset : mVerticalOffset) > 0;
+    }
+
+    /**
+     * Returns true if some items are laid out, or not laid out yet, past the end of
+     * the display area.
+     */
+    boolean hasContentAfterEnd() {
+        int offset = mOrientation == HORIZONTAL ? mHorizontalOffset : mVerticalOffset;
+        return mItemFrames.size() < getItemCount() || offset < getMaxScrollDistance();
+    }
+
     int getOpticalLeft(View view) {
         return view.getLeft() + mDecorInsets.left;
     }
@@ -0,0 +1,115 @@
+package app.com.tvrecyclerview;
+
+/**
+ * The cost of one layout or scroll pass of a grid view, reported to
+ * {@link BaseGridView.OnLayoutMetricsListener}. The same instance is reused for every
+ * pass, copy the values to keep them.
+ */
+public final class GridLayoutMetrics {
+
+    /**
+     * The pass laid out the children again, e.g. after a data change.
+     */
+    public static final int PASS_LAYOUT = 0;
+
+    /**
+     * The pass scrolled the children and filled the uncovered area.
+     */
+    public static final int PASS_SCROLL = 1;
+
+    int mPassType;
+
+    long mFillTimeNanos;
+
+    int mChildrenAdded;
+
+    int mChildrenRebound;
+
+    int mChildrenRecycled;
+
+    int mMeasureCount;
+
+    int mFrameCacheHits;
+
+    int mFrameCacheMisses;
+
+    void reset(int passType) {
+        mPassType = passType;
+        mFillTimeNanos = 0;
+        mChildrenAdded = 0;
+        mChildrenRebound = 0;
+        mChildrenRecycled = 0;
+        mMeasureCount = 0;
+        mFrameCacheHits = 0;
+        mFrameCacheMisses = 0;
+    }
+
+    /**
+     * Returns {@link #PASS_LAYOUT} or {@link #PASS_SCROLL}.
+     */
+    public int getPassType() {
+        return mPassType;
+    }
+
+    /**
+     * Returns the time spent in the pass.
+     */
+    public long getFillTimeNanos() {
+        return mFillTimeNanos;
+    }
+
+    /**
+     * Returns the number of views added to the grid view, including the ones
+     * re-attached from the scrap during a layout pass.
+     */
+    public int getChildrenAdded() {
+        return mChildrenAdded;
+    }
+
+    /**
+     * Returns the number of views bound to an item by the adapter.
+     */
+    public int getChildrenRebound() {
+        return mChildrenRebound;
+    }
+
+    /**
+     * Returns the number of views given back to the recycler.
+     */
+    public int getChildrenRecycled() {
+        return mChildrenRecycled;
+    }
+
+    /**
+     * Returns the number of children measured.
+     */
+    public int getMeasureCount() {
+        return mMeasureCount;
+    }
+
+    /**
+     * Returns the number of items laid out with a stored frame.
+     */
+    public int getFrameCacheHits() {
+        return mFrameCacheHits;
+    }
+
+    /**
+     * Returns the number of items whose frame had to be computed.
+     */
+    public int getFrameCacheMisses() {
+        return mFrameCacheMisses;
+    }
+
+    @Override
+    public String toString() {
+        return "GridLayoutMetrics{pass=" + (mPassType == PASS_LAYOUT ? "layout" : "scroll")
+                + ", fillTimeNanos=" + mFillTimeNanos
+                + ", added=" + mChildrenAdded
+                + ", rebound=" + mChildrenRebound
+                + ", recycled=" + mChildrenRecycled
+                + ", measured=" + mMeasureCount
+                + ", frameCacheHits=" + mFrameCacheHits
+                + ", frameCacheMisses=" + mFrameCacheMisses + "}";
+    }
+}
@@ -0,0 +1,97 @@
+package app.com.tvrecyclerview;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import app.com.tvrecyclerview.core.FramePlan;
+import app.com.tvrecyclerview.core.GridFrameSpec;
+
+/**
+ * Computes {@link FramePlan}s on a worker thread and delivers them on the main thread.
+ * Only the result of the latest request is delivered.
+ */
+final class GridLayoutPlanner {
+
+    interface Callback {
+        /**
+         * Called on the main thread when the plan of the latest request is ready.
+         */
+        void onFramePlanReady(FramePlan plan);
+    }
+
+    private static final Executor sExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "GridLayoutPlanner");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private final Callback mCallback;
+
+    /**
+     * Increased by every request or cancel, results of older requests are dropped.
+     */
+    private int mGeneration;
+
+    private GridFrameSpec mPendingSpec;
+
+    private int mPendingItemCount;
+
+    private boolean mPendingHorizontal;
+
+    GridLayoutPlanner(Callback callback) {
+        mCallback = callback;
+    }
+
+    /**
+     * Returns true if a plan for the given layout is being computed.
+     */
+    boolean isPlanning(GridFrameSpec spec, int itemCount, boolean horizontal) {
+        return mPendingSpec != null && mPendingSpec.equals(spec)
+                && mPendingItemCount == itemCount && mPendingHorizontal == horizontal;
+    }
+
+    /**
+     * Starts computing a plan, the previous request is dropped.
+     * @param spans x, y, width and height of every item, four ints per item.
+     *              It's owned by the planner after the call.
+     */
+    void plan(final int[] spans, final int itemCount, final GridFrameSpec spec,
+              final boolean horizontal) {
+        final int generation = ++mGeneration;
+        mPendingSpec = spec;
+        mPendingItemCount = itemCount;
+        mPendingHorizontal = horizontal;
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final FramePlan plan = FramePlan.compute(spans, itemCount, spec, horizontal);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            return;
+                        }
+                        mPendingSpec = null;
+                        mCallback.onFramePlanReady(plan);
+                    }
+                });
+            }
+        });
+    }
+
+    void cancel() {
+        mGeneration++;
+        mPendingSpec = null;
+    }
+}
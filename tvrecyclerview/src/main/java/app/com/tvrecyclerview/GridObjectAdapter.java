@@ -1,97 +1,95 @@
 package app.com.tvrecyclerview;
 
-import android.database.Observable;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
 
 import java.util.ArrayList;
-
-public class GridObjectAdapter {
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * An {@link ObjectAdapter} holding its items in a list.
+ */
+public class GridObjectAdapter extends ObjectAdapter {
 
     /**
-     * A DataObserver can be notified when an ObjectAdapter's underlying data
-     * changes. Separate methods provide notifications about different types of
-     * changes.
+     * Tells {@link #submitList(List, ItemCallback)} which items of the old and new
+     * lists are the same. Called on the diff executor.
      */
-    public static abstract class DataObserver {
-        /**
-         * Called whenever the ObjectAdapter's data has changed in some manner
-         * outside of the set of changes covered by the other range-based change
-         * notification methods.
-         */
-        public void onChanged() {
-        }
-
+    public static abstract class ItemCallback {
         /**
-         * Called when a range of items in the ObjectAdapter has changed. The
-         * basic ordering and structure of the ObjectAdapter has not changed.
-         *
-         * @param positionStart The position of the first item that changed.
-         * @param itemCount The number of items changed.
+         * Returns true if both items stand for the same object, e.g. have the same id.
          */
-        public void onItemRangeChanged(int positionStart, int itemCount) {
-            onChanged();
-        }
-
-        /**
-         * Called when a range of items is inserted into the ObjectAdapter.
-         *
-         * @param positionStart The position of the first inserted item.
-         * @param itemCount The number of items inserted.
-         */
-        public void onItemRangeInserted(int positionStart, int itemCount) {
-            onChanged();
-        }
+        public abstract boolean areItemsTheSame(RowItem oldItem, RowItem newItem);
 
         /**
-         * Called when a range of items is removed from the ObjectAdapter.
-         *
-         * @param positionStart The position of the first removed item.
-         * @param itemCount The number of items removed.
+         * Returns true if the same object needs no rebind, only called when
+         * {@link #areItemsTheSame(RowItem, RowItem)} returned true.
          */
-        public void onItemRangeRemoved(int positionStart, int itemCount) {
-            onChanged();
-        }
+        public abstract boolean areContentsTheSame(RowItem oldItem, RowItem newItem);
     }
 
-    private static final class DataObservable extends Observable<DataObserver> {
+    private static final Executor sDiffExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "GridObjectAdapter");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
 
-        public void notifyChanged() {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).onChanged();
-            }
-        }
+    private ArrayList<RowItem> mItems = new ArrayList<>();
 
-        public void notifyItemRangeChanged(int positionStart, int itemCount) {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).onItemRangeChanged(positionStart, itemCount);
-            }
-        }
+    /**
+     * Increased by every change of the items, a diff computed on older items is dropped.
+     */
+    private int mModCount;
 
-        public void notifyItemRangeInserted(int positionStart, int itemCount) {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).onItemRangeInserted(positionStart, itemCount);
-            }
-        }
+    /**
+     * Increased by every submitted list, only the latest one is applied.
+     */
+    private int mSubmitGeneration;
 
-        public void notifyItemRangeRemoved(int positionStart, int itemCount) {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).onItemRangeRemoved(positionStart, itemCount);
-            }
-        }
-    }
+    private Executor mDiffExecutor = sDiffExecutor;
 
-    private ArrayList<RowItem> mItems = new ArrayList<>();
+    /**
+     * Position of each item id, exact for the first {@link #mIdIndexValidCount} items
+     */
+    private final HashMap<Long, Integer> mIdIndex = new HashMap<>();
 
-    private int mRowSpacing = 0;
+    private int mIdIndexValidCount;
 
-    private int mColumnSpacing = 0;
+    private Handler mMainHandler;
 
-    private int mColumns = 0;
+    private final ListUpdateCallback mUpdateCallback = new ListUpdateCallback() {
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(position, count);
+        }
 
-    private float mAspectRatio = 1.0f;
+        @Override
+        public void onRemoved(int position, int count) {
+            notifyItemRangeRemoved(position, count);
+        }
 
-    private final DataObservable mObservable = new DataObservable();
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            notifyItemMoved(fromPosition, toPosition);
+        }
 
-    private PresenterSelector mPresenterSelector;
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            notifyItemRangeChanged(position, count);
+        }
+    };
 
     public GridObjectAdapter() {
     }
@@ -100,38 +98,31 @@ public class GridObjectAdapter {
      * Constructs an adapter with the given {@link PresenterSelector}.
      */
     public GridObjectAdapter(PresenterSelector presenterSelector) {
-        setPresenterSelector(presenterSelector);
+        super(presenterSelector);
     }
 
     /**
      * Constructs an adapter that uses the given {@link Presenter} for all items.
      */
     public GridObjectAdapter(Presenter presenter) {
-        setPresenterSelector(new SinglePresenterSelector(presenter));
+        super(new SinglePresenterSelector(presenter));
     }
 
     public GridObjectAdapter(Presenter presenter,
                              int rowSpacing, int columnSpacing, int columns,
                              float aspectRatio) {
-        mRowSpacing = rowSpacing;
-        mColumnSpacing = columnSpacing;
-        mColumns = columns;
-        mAspectRatio = aspectRatio;
-        setPresenterSelector(new SinglePresenterSelector(presenter));
+        super(new SinglePresenterSelector(presenter), rowSpacing, columnSpacing, columns,
+                aspectRatio);
     }
 
     public GridObjectAdapter(Presenter presenter, int columns,
                              float aspectRatio) {
-        mColumns = columns;
-        mAspectRatio = aspectRatio;
-        setPresenterSelector(new SinglePresenterSelector(presenter));
+        super(new SinglePresenterSelector(presenter), 0, 0, columns, aspectRatio);
     }
 
     public GridObjectAdapter(PresenterSelector presenterSelector, int columns,
                              float aspectRatio) {
-        mColumns = columns;
-        mAspectRatio = aspectRatio;
-        setPresenterSelector(presenterSelector);
+        super(presenterSelector, 0, 0, columns, aspectRatio);
     }
 
     /**
@@ -140,47 +131,15 @@ public class GridObjectAdapter {
     public GridObjectAdapter(PresenterSelector presenterSelector,
                              int rowSpacing, int columnSpacing, int columns,
                              float aspectRatio) {
-        mRowSpacing = rowSpacing;
-        mColumnSpacing = columnSpacing;
-        mColumns = columns;
-        mAspectRatio = aspectRatio;
-        setPresenterSelector(presenterSelector);
-    }
-
-    public void setGridStyle(int rowSpacing, int columnSpacing, int numRowOrColumns,
-                             float aspectRatio) {
-        mRowSpacing = rowSpacing;
-        mColumnSpacing = columnSpacing;
-        mColumns = numRowOrColumns;
-        mAspectRatio = aspectRatio;
-    }
-
-    /**
-     * Sets the presenter selector.  May not be null.
-     */
-    public final void setPresenterSelector(PresenterSelector presenterSelector) {
-        if (presenterSelector == null) {
-            throw new IllegalArgumentException("Presenter selector must not be null");
-        }
-        final boolean update = (mPresenterSelector != null);
-        mPresenterSelector = presenterSelector;
-
-        if (update) {
-            notifyChanged();
-        }
-    }
-
-    /**
-     * Returns the presenter selector for this ObjectAdapter.
-     */
-    public final PresenterSelector getPresenterSelector() {
-        return mPresenterSelector;
+        super(presenterSelector, rowSpacing, columnSpacing, columns, aspectRatio);
     }
 
+    @Override
     public int size() {
         return mItems.size();
     }
 
+    @Override
     public RowItem get(int position) {
         return mItems.get(position);
     }
@@ -194,6 +153,12 @@ public class GridObjectAdapter {
      *         if not found.
      */
     public int indexOf(RowItem item) {
+        if (item != null && item.getId() != RowItem.NO_ID) {
+            int position = indexOfId(item.getId());
+            if (position >= 0 && item.equals(mItems.get(position))) {
+                return position;
+            }
+        }
         return mItems.indexOf(item);
     }
 
@@ -214,9 +179,192 @@ public class GridObjectAdapter {
      */
     public void add(int index, RowItem item) {
         mItems.add(index, item);
+        onItemsInserted(index, 1);
         notifyItemRangeInserted(index, 1);
     }
 
+    /**
+     * Adds the items to the end of the adapter with a single notification.
+     */
+    public void addAll(Collection<? extends RowItem> items) {
+        addAll(mItems.size(), items);
+    }
+
+    /**
+     * Inserts the items into this adapter at the specified index with a single
+     * notification.
+     *
+     * @param index The index at which the first item should be inserted.
+     * @param items The items to insert into the adapter.
+     */
+    public void addAll(int index, Collection<? extends RowItem> items) {
+        int itemCount = items.size();
+        if (itemCount == 0) {
+            return;
+        }
+        mItems.addAll(index, items);
+        onItemsInserted(index, itemCount);
+        notifyItemRangeInserted(index, itemCount);
+    }
+
+    /**
+     * Removes a range of items from the adapter with a single notification.
+     *
+     * @param positionStart The position of the first item to remove.
+     * @param itemCount The number of items to remove.
+     */
+    public void removeRange(int positionStart, int itemCount) {
+        if (positionStart < 0 || itemCount < 0 || positionStart + itemCount > mItems.size()) {
+            throw new IndexOutOfBoundsException("positionStart " + positionStart
+                    + " itemCount " + itemCount + " size " + mItems.size());
+        }
+        if (itemCount == 0) {
+            return;
+        }
+        unindexIds(positionStart, itemCount);
+        mItems.subList(positionStart, positionStart + itemCount).clear();
+        onItemsRemoved(positionStart, itemCount);
+        notifyItemRangeRemoved(positionStart, itemCount);
+    }
+
+    /**
+     * Moves an item from one position to another.
+     *
+     * @param fromPosition The position of the item to move.
+     * @param toPosition The position the item ends up at.
+     */
+    public void move(int fromPosition, int toPosition) {
+        if (fromPosition == toPosition) {
+            return;
+        }
+        RowItem item = mItems.remove(fromPosition);
+        mItems.add(toPosition, item);
+        onItemsModified(Math.min(fromPosition, toPosition));
+        notifyItemMoved(fromPosition, toPosition);
+    }
+
+    /**
+     * Replaces all the items of the adapter. The items kept at the same position are
+     * notified as changed, the rest as inserted or removed.
+     *
+     * @param items The new items of the adapter.
+     */
+    public void setItems(List<? extends RowItem> items) {
+        int oldSize = mItems.size();
+        int newSize = items.size();
+        mItems.clear();
+        mItems.addAll(items);
+        onItemsModified(0);
+        beginBatch();
+        int changed = Math.min(oldSize, newSize);
+        if (changed > 0) {
+            notifyItemRangeChanged(0, changed);
+        }
+        if (newSize > oldSize) {
+            notifyItemRangeInserted(oldSize, newSize - oldSize);
+        } else if (oldSize > newSize) {
+            notifyItemRangeRemoved(newSize, oldSize - newSize);
+        }
+        endBatch();
+    }
+
+    /**
+     * Replaces the items with the list, notifying only the items inserted, removed,
+     * moved or changed. The difference is computed on the diff executor and applied
+     * on the main thread, so the focused and displayed items keep their place.
+     * Only the latest submitted list is applied.
+     *
+     * @param items The new items of the adapter, must not be modified afterwards.
+     * @param callback Compares the old and new items.
+     */
+    public void submitList(List<? extends RowItem> items, ItemCallback callback) {
+        submitList(items, callback, null);
+    }
+
+    /**
+     * Same as {@link #submitList(List, ItemCallback)}.
+     *
+     * @param commitCallback Run on the main thread once the list is applied, may be null.
+     */
+    public void submitList(final List<? extends RowItem> items, final ItemCallback callback,
+                           final Runnable commitCallback) {
+        final int generation = ++mSubmitGeneration;
+        if (mItems.isEmpty() || items.isEmpty()) {
+            // nothing to keep
+            setItems(items);
+            if (commitCallback != null) {
+                commitCallback.run();
+            }
+            return;
+        }
+        if (mMainHandler == null) {
+            mMainHandler = new Handler(Looper.getMainLooper());
+        }
+        final int modCount = mModCount;
+        final List<RowItem> oldItems = new ArrayList<>(mItems);
+        mDiffExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldItems.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return items.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                        return callback.areItemsTheSame(oldItems.get(oldPosition),
+                                items.get(newPosition));
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                        return callback.areContentsTheSame(oldItems.get(oldPosition),
+                                items.get(newPosition));
+                    }
+                });
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mSubmitGeneration) {
+                            return;
+                        }
+                        if (modCount != mModCount) {
+                            // the items have changed since, diff against them
+                            submitList(items, callback, commitCallback);
+                            return;
+                        }
+                        mItems.clear();
+                        mItems.addAll(items);
+                        onItemsModified(0);
+                        // the ranges of the diff are already as coarse as they can be, a
+                        // batch would turn a large diff into a data set change
+                        result.dispatchUpdatesTo(mUpdateCallback);
+                        if (commitCallback != null) {
+                            commitCallback.run();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Sets the executor computing the differences of submitted lists, a single
+     * shared background thread by default.
+     */
+    public void setDiffExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        mDiffExecutor = executor;
+    }
+
     /**
      * Replaces item at position with a new item and calls notifyItemRangeChanged()
      * at the given position.  Note that this method does not compare new item to
@@ -226,6 +374,7 @@ public class GridObjectAdapter {
      */
     public void replace(int position, RowItem item) {
         mItems.set(position, item);
+        onItemsModified(position);
         notifyItemRangeChanged(position, 1);
     }
 
@@ -238,50 +387,133 @@ public class GridObjectAdapter {
             return;
         }
         mItems.clear();
+        onItemsModified(0);
         notifyItemRangeRemoved(0, itemCount);
     }
 
-    public long getId(int position) {
+    /**
+     * Returns the position of the item with the id, or -1 if not found. Takes constant
+     * time except for the first lookup after a change other than an insertion or a
+     * removal, which indexes the items from the first changed position.
+     */
+    @Override
+    public int indexOfId(long id) {
+        if (id == RowItem.NO_ID) {
+            return -1;
+        }
+        Integer position = mIdIndex.get(id);
+        if (position == null || position >= mIdIndexValidCount) {
+            updateIdIndex();
+            position = mIdIndex.get(id);
+            if (position == null) {
+                return -1;
+            }
+        }
+        if (position >= mItems.size() || mItems.get(position).getId() != id) {
+            // the item has been removed, the index may still hold its old position
+            updateIdIndex();
+            position = mIdIndex.get(id);
+            if (position == null || position >= mItems.size()
+                    || mItems.get(position).getId() != id) {
+                mIdIndex.remove(id);
+                return -1;
+            }
+        }
         return position;
     }
 
-    /**
-     * Registers a DataObserver for data change notifications.
-     */
-    public final void registerObserver(DataObserver observer) {
-        mObservable.registerObserver(observer);
+    private void updateIdIndex() {
+        int size = mItems.size();
+        if (mIdIndexValidCount == 0) {
+            mIdIndex.clear();
+        }
+        for (int i = mIdIndexValidCount; i < size; i++) {
+            long id = mItems.get(i).getId();
+            if (id != RowItem.NO_ID) {
+                mIdIndex.put(id, i);
+            }
+        }
+        mIdIndexValidCount = size;
     }
 
-    /**
-     * Unregisters a DataObserver for data change notifications.
-     */
-    public final void unregisterObserver(DataObserver observer) {
-        mObservable.unregisterObserver(observer);
+    @Override
+    int getModCount() {
+        return mModCount;
     }
 
     /**
-     * Unregisters all DataObservers for this ObjectAdapter.
+     * Called after the items from the position on have changed.
      */
-    public final void unregisterAllObservers() {
-        mObservable.unregisterAll();
+    private void onItemsModified(int fromPosition) {
+        mModCount++;
+        if (fromPosition < mIdIndexValidCount) {
+            mIdIndexValidCount = fromPosition;
+        }
     }
 
-    final protected void notifyItemRangeChanged(int positionStart, int itemCount) {
-        mObservable.notifyItemRangeChanged(positionStart, itemCount);
+    /**
+     * Called after items are inserted, the indexed positions after them are shifted
+     * and the inserted items indexed, so the index stays exact without a rebuild.
+     */
+    private void onItemsInserted(int positionStart, int itemCount) {
+        mModCount++;
+        if (positionStart >= mIdIndexValidCount) {
+            return;
+        }
+        shiftIdIndex(positionStart, itemCount);
+        for (int i = positionStart; i < positionStart + itemCount; i++) {
+            long id = mItems.get(i).getId();
+            if (id != RowItem.NO_ID) {
+                mIdIndex.put(id, i);
+            }
+        }
+        mIdIndexValidCount += itemCount;
     }
 
-    final protected void notifyItemRangeInserted(int positionStart, int itemCount) {
-        mObservable.notifyItemRangeInserted(positionStart, itemCount);
+    /**
+     * Drops the ids of the indexed items about to be removed.
+     */
+    private void unindexIds(int positionStart, int itemCount) {
+        int end = Math.min(positionStart + itemCount, mIdIndexValidCount);
+        for (int i = positionStart; i < end; i++) {
+            long id = mItems.get(i).getId();
+            Integer position = mIdIndex.get(id);
+            if (position != null && position == i) {
+                mIdIndex.remove(id);
+            }
+        }
     }
 
-    final protected void notifyItemRangeRemoved(int positionStart, int itemCount) {
-        mObservable.notifyItemRangeRemoved(positionStart, itemCount);
+    /**
+     * Called after items are removed, the indexed positions after them are shifted.
+     */
+    private void onItemsRemoved(int positionStart, int itemCount) {
+        mModCount++;
+        if (positionStart >= mIdIndexValidCount) {
+            return;
+        }
+        if (positionStart + itemCount > mIdIndexValidCount) {
+            // removed past the indexed items, the rest is indexed on the next lookup
+            mIdIndexValidCount = positionStart;
+            return;
+        }
+        shiftIdIndex(positionStart + itemCount, -itemCount);
+        mIdIndexValidCount -= itemCount;
     }
 
-    final protected void notifyChanged() {
-        mObservable.notifyChanged();
+    /**
+     * Adds delta to the indexed positions from the given one on.
+     */
+    private void shiftIdIndex(int fromPosition, int delta) {
+        for (Map.Entry<Long, Integer> entry : mIdIndex.entrySet()) {
+            int position = entry.getValue();
+            if (position >= fromPosition) {
+                entry.setValue(position + delta);
+            }
+        }
     }
 
+    @Override
     public int getItemLeftIndex(int position) {
         if (mItems == null || position < 0) {
             return 0;
@@ -293,6 +525,7 @@ public class GridObjectAdapter {
         }
     }
 
+    @Override
     public int getItemTopIndex(int position) {
         if (mItems == null || position < 0) {
             return 0;
@@ -304,6 +537,7 @@ public class GridObjectAdapter {
         }
     }
 
+    @Override
     public int getItemRowSize(int position) {
         if (mItems == null || position < 0) {
             return 0;
@@ -315,6 +549,7 @@ public class GridObjectAdapter {
         }
     }
 
+    @Override
     public int getItemColumnSize(int position) {
         if (mItems == null || position < 0) {
             return 0;
@@ -325,20 +560,4 @@ public class GridObjectAdapter {
             return 1;
         }
     }
-
-    public int getColumnSpacing() {
-        return mColumnSpacing;
-    }
-
-    public int getRowSpacing() {
-        return mRowSpacing;
-    }
-
-    public int getColumns() {
-        return mColumns;
-    }
-
-    public float getAspectRatio() {
-        return mAspectRatio;
-    }
 }
@@ -0,0 +1,54 @@
+package app.com.tvrecyclerview;
+
+/**
+ * Receives the phases of the work done by the layout manager of a grid view,
+ * install one with {@link BaseGridView#setTracer(GridTracer)}. Nothing is traced
+ * and nothing is paid when no tracer is installed.
+ * <p>
+ * Methods are called on the main thread. Section and counter names are the
+ * constants below, so tracing itself does not allocate.
+ */
+public interface GridTracer {
+
+    /**
+     * A layout pass.
+     */
+    String SECTION_LAYOUT = "TvGrid#layout";
+
+    /**
+     * Adding the views entering the display area.
+     */
+    String SECTION_FILL = "TvGrid#fill";
+
+    /**
+     * Recycling the views leaving the display area.
+     */
+    String SECTION_RECYCLE = "TvGrid#recycle";
+
+    /**
+     * A scroll step.
+     */
+    String SECTION_SCROLL = "TvGrid#scroll";
+
+    /**
+     * Handling a child which requested focus.
+     */
+    String SECTION_FOCUS = "TvGrid#focus";
+
+    String COUNTER_CHILD_COUNT = "TvGrid#childCount";
+
+    String COUNTER_RECYCLED = "TvGrid#recycled";
+
+    String COUNTER_SCROLL_OFFSET = "TvGrid#scrollOffset";
+
+    String COUNTER_FOCUS_POSITION = "TvGrid#focusPosition";
+
+    void beginSection(String name);
+
+    /**
+     * Ends the most recently begun section.
+     */
+    void endSection();
+
+    void setCounter(String name, long value);
+}
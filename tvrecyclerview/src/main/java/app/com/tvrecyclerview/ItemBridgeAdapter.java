@@ -7,6 +7,7 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 
 
 public class ItemBridgeAdapter extends RecyclerView.Adapter {
@@ -29,40 +30,54 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
         }
     }
 
-    private GridObjectAdapter mAdapter;
+    private ObjectAdapter mAdapter;
     private ArrayList<Presenter> mPresenters = new ArrayList<>();
+    private final IdentityHashMap<Presenter, Integer> mPresenterTypes = new IdentityHashMap<>();
+    private final ViewTypeCache mViewTypes = new ViewTypeCache();
     private PresenterSelector mPresenterSelector;
     private FocusHighlightHandler mFocusHighlight;
     private AdapterListener mAdapterListener;
+    private BaseGridView mGridView;
+    private SharedViewPool mViewPool;
+    private PresenterPrewarmer mPrewarmer;
 
 
-    private GridObjectAdapter.DataObserver mDataObserver = new GridObjectAdapter.DataObserver() {
+    private ObjectAdapter.DataObserver mDataObserver = new ObjectAdapter.DataObserver() {
         @Override
         public void onChanged() {
+            mViewTypes.clear();
             ItemBridgeAdapter.this.notifyDataSetChanged();
         }
         @Override
         public void onItemRangeChanged(int positionStart, int itemCount) {
+            mViewTypes.onItemRangeChanged(positionStart, itemCount);
             ItemBridgeAdapter.this.notifyItemRangeChanged(positionStart, itemCount);
         }
         @Override
         public void onItemRangeInserted(int positionStart, int itemCount) {
+            mViewTypes.onItemRangeInserted(positionStart, itemCount);
             ItemBridgeAdapter.this.notifyItemRangeInserted(positionStart, itemCount);
         }
         @Override
         public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mViewTypes.onItemRangeRemoved(positionStart, itemCount);
             ItemBridgeAdapter.this.notifyItemRangeRemoved(positionStart, itemCount);
         }
+        @Override
+        public void onItemMoved(int fromPosition, int toPosition) {
+            mViewTypes.onItemMoved(fromPosition, toPosition);
+            ItemBridgeAdapter.this.notifyItemMoved(fromPosition, toPosition);
+        }
     };
 
     public ItemBridgeAdapter() {
     }
 
-    public ItemBridgeAdapter(GridObjectAdapter adapter) {
+    public ItemBridgeAdapter(ObjectAdapter adapter) {
         this(adapter, null);
     }
 
-    public ItemBridgeAdapter(GridObjectAdapter adapter, PresenterSelector presenterSelector) {
+    public ItemBridgeAdapter(ObjectAdapter adapter, PresenterSelector presenterSelector) {
         setAdapter(adapter);
         mPresenterSelector = presenterSelector;
     }
@@ -70,14 +85,18 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
     /**
      * Sets the {@link GridObjectAdapter}.
      */
-    public void setAdapter(GridObjectAdapter adapter) {
+    public void setAdapter(ObjectAdapter adapter) {
         if (mAdapter != null) {
             mAdapter.unregisterObserver(mDataObserver);
         }
         mAdapter = adapter;
+        mViewTypes.clear();
         if (mAdapter == null) {
             return;
         }
+        if (hasStableIds() != mAdapter.hasStableIds()) {
+            setHasStableIds(mAdapter.hasStableIds());
+        }
 
         mAdapter.registerObserver(mDataObserver);
     }
@@ -85,10 +104,17 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
     /**
      * Returns the {@link GridObjectAdapter}.
      */
-    public GridObjectAdapter getAdapter() {
+    public ObjectAdapter getAdapter() {
         return mAdapter;
     }
 
+    /**
+     * Returns the selector used instead of the one of the adapter, null if none.
+     */
+    PresenterSelector getPresenterSelector() {
+        return mPresenterSelector;
+    }
+
     /**
      * Sets the AdapterListener.
      */
@@ -96,6 +122,19 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
         mAdapterListener = listener;
     }
 
+    /**
+     * Takes the view types from a pool shared with other grid views, so that they
+     * can reuse the views created by this adapter.
+     */
+    public void setSharedViewPool(SharedViewPool viewPool) {
+        mViewPool = viewPool;
+        mViewTypes.clear();
+    }
+
+    public SharedViewPool getSharedViewPool() {
+        return mViewPool;
+    }
+
     void setFocusHighlight(FocusHighlightHandler listener) {
         mFocusHighlight = listener;
     }
@@ -109,28 +148,51 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
 
     @Override
     public int getItemViewType(int position) {
+        int type = mViewTypes.get(position);
+        if (type >= 0) {
+            // the item has not changed since its presenter was selected
+            return type;
+        }
         PresenterSelector presenterSelector = mPresenterSelector != null ?
                 mPresenterSelector : mAdapter.getPresenterSelector();
         Object item = mAdapter.get(position);
         Presenter presenter = presenterSelector.getPresenter(item);
-        int type = mPresenters.indexOf(presenter);
-        if (type < 0) {
+        Integer presenterType = mPresenterTypes.get(presenter);
+        if (presenterType == null) {
             mPresenters.add(presenter);
-            type = mPresenters.indexOf(presenter);
+            type = mPresenters.size() - 1;
+            mPresenterTypes.put(presenter, type);
+            if (mViewPool != null) {
+                type = mViewPool.getViewType(presenter);
+            }
+            if (mPrewarmer != null) {
+                mPrewarmer.prewarm(presenter);
+            }
             if (mAdapterListener != null) {
                 mAdapterListener.onAddPresenter(presenter, type);
             }
+        } else if (mViewPool != null) {
+            type = mViewPool.getViewType(presenter);
+        } else {
+            type = presenterType;
         }
+        mViewTypes.put(position, type);
         return type;
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        Presenter presenter = mPresenters.get(viewType);
-        Presenter.ViewHolder presenterVh = presenter.onCreateViewHolder(parent);
+        Presenter presenter = mViewPool != null ? mViewPool.getPresenter(viewType)
+                : mPresenters.get(viewType);
+        Presenter.ViewHolder presenterVh = presenter.obtainViewHolder(parent);
+        if (mPrewarmer != null) {
+            // refill the views taken while idle
+            mPrewarmer.prewarm(presenter);
+        }
         View view = presenterVh.view;
         ViewHolder viewHolder = new ViewHolder(presenter, view, presenterVh);
+        viewHolder.mFocusChangeListener.mBridgeAdapter = this;
         if (mAdapterListener != null) {
             mAdapterListener.onCreate(viewHolder);
         }
@@ -153,11 +215,51 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
     @Override
     public final void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
         ViewHolder viewHolder = (ViewHolder) holder;
+        ItemBridgeAdapter previous = viewHolder.mFocusChangeListener.mBridgeAdapter;
+        if (previous != this) {
+            // created by another grid view sharing the view pool, take over the highlight
+            if (previous.mFocusHighlight != null) {
+                // stops a zoom still running in the other grid view
+                previous.mFocusHighlight.onInitializeView(viewHolder.itemView);
+            }
+            viewHolder.mFocusChangeListener.mBridgeAdapter = this;
+            if (mFocusHighlight != null) {
+                mFocusHighlight.onInitializeView(viewHolder.itemView);
+            }
+        }
         viewHolder.mItem = mAdapter.get(position);
+        mAdapter.onItemBound(position);
         viewHolder.mPresenter.onBindViewHolder(viewHolder.mHolder, viewHolder.mItem);
         if (mAdapterListener != null) {
             mAdapterListener.onBind(viewHolder);
         }
+        if (mGridView != null) {
+            mGridView.mLayoutManager.onChildBound();
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        if (recyclerView instanceof BaseGridView) {
+            mGridView = (BaseGridView) recyclerView;
+        }
+        if (mPrewarmer == null) {
+            mPrewarmer = new PresenterPrewarmer(recyclerView);
+            for (int i = 0, size = mPresenters.size(); i < size; i++) {
+                mPrewarmer.prewarm(mPresenters.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        if (mGridView == recyclerView) {
+            mGridView = null;
+        }
+        if (mPrewarmer != null) {
+            mPrewarmer.cancel();
+            mPrewarmer = null;
+        }
     }
 
     @Override
@@ -173,6 +275,10 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
     @Override
     public final void onViewAttachedToWindow(@NonNull RecyclerView.ViewHolder holder) {
         ViewHolder viewHolder = (ViewHolder) holder;
+        viewHolder.mAttachedPosition = viewHolder.getLayoutPosition();
+        if (mAdapter != null) {
+            mAdapter.onItemAttached(viewHolder.mAttachedPosition);
+        }
         if (mAdapterListener != null) {
             mAdapterListener.onAttachedToWindow(viewHolder);
         }
@@ -186,6 +292,10 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
         if (mAdapterListener != null) {
             mAdapterListener.onDetachedFromWindow(viewHolder);
         }
+        if (mAdapter != null) {
+            mAdapter.onItemDetached(viewHolder.mAttachedPosition);
+        }
+        viewHolder.mAttachedPosition = RecyclerView.NO_POSITION;
     }
 
     @Override
@@ -195,11 +305,13 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
 
     private final class OnFocusChangeListener implements View.OnFocusChangeListener {
         View.OnFocusChangeListener mChainedListener;
+        ItemBridgeAdapter mBridgeAdapter;
 
         @Override
         public void onFocusChange(View view, boolean hasFocus) {
-            if (mFocusHighlight != null) {
-                mFocusHighlight.onItemFocused(view, hasFocus);
+            FocusHighlightHandler focusHighlight = mBridgeAdapter.mFocusHighlight;
+            if (focusHighlight != null) {
+                focusHighlight.onItemFocused(view, hasFocus);
             }
             if (mChainedListener != null) {
                 mChainedListener.onFocusChange(view, hasFocus);
@@ -215,6 +327,10 @@ public class ItemBridgeAdapter extends RecyclerView.Adapter {
         final Presenter.ViewHolder mHolder;
         final OnFocusChangeListener mFocusChangeListener = new OnFocusChangeListener();
         Object mItem;
+        /**
+         * Position the view was attached at, the adapter is told the same one on detach
+         */
+        int mAttachedPosition = RecyclerView.NO_POSITION;
 
         /**
          * Get {@link Presenter}.
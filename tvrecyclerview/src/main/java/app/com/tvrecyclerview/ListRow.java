@@ -0,0 +1,23 @@
+package app.com.tvrecyclerview;
+
+/**
+ * A row of a browse page, its items are shown in a {@link HorizontalGridView} by a
+ * {@link ListRowPresenter}. The id identifies the row whose scroll offset and
+ * focused item are kept while its view is recycled.
+ */
+public class ListRow extends RowItem {
+
+    private final ObjectAdapter mAdapter;
+
+    public ListRow(long id, ObjectAdapter adapter) {
+        if (adapter == null) {
+            throw new IllegalArgumentException("Adapter must not be null");
+        }
+        mAdapter = adapter;
+        setId(id);
+    }
+
+    public final ObjectAdapter getAdapter() {
+        return mAdapter;
+    }
+}
@@ -0,0 +1,177 @@
+package app.com.tvrecyclerview;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.util.LongSparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Presents the {@link ListRow}s of a browse page, e.g. in a {@link VerticalGridView}
+ * with one column. Each row is a {@link HorizontalGridView}, the rows share the views
+ * of their items through one {@link SharedViewPool}.
+ *
+ * <p>The row views are recycled like any other item. When a row view is recycled the
+ * scroll offset, the focused item and the frames of the row are saved by row id, so
+ * the row shows again where it was left without laying out its items from the first
+ * one.</p>
+ */
+public class ListRowPresenter extends Presenter {
+
+    public static class ViewHolder extends Presenter.ViewHolder {
+        final HorizontalGridView mGridView;
+
+        ListRow mRow;
+
+        public ViewHolder(HorizontalGridView gridView) {
+            super(gridView);
+            mGridView = gridView;
+        }
+
+        public final HorizontalGridView getGridView() {
+            return mGridView;
+        }
+
+        /**
+         * Returns the bound row, null if the view is not bound.
+         */
+        public final ListRow getRow() {
+            return mRow;
+        }
+    }
+
+    private SharedViewPool mSharedViewPool = new SharedViewPool();
+
+    /**
+     * The states of the rows not bound to a view, by row id
+     */
+    private final LongSparseArray<RowState> mRowStates = new LongSparseArray<>();
+
+    private int mNumRows = 1;
+
+    private int mRowHeight = ViewGroup.LayoutParams.WRAP_CONTENT;
+
+    private int mFocusZoomFactor = FocusHighlightHelper.ZOOM_FACTOR_NONE;
+
+    public ListRowPresenter(Context context) {
+        super(context);
+    }
+
+    /**
+     * Sets the pool shared by the items of all rows, set it before the rows are created.
+     * @param viewPool null keeps the views of the items to each row
+     */
+    public void setSharedViewPool(SharedViewPool viewPool) {
+        mSharedViewPool = viewPool;
+    }
+
+    public SharedViewPool getSharedViewPool() {
+        return mSharedViewPool;
+    }
+
+    /**
+     * Sets the number of rows of items in a row, set it before the rows are created.
+     */
+    public void setNumRows(int numRows) {
+        mNumRows = numRows;
+    }
+
+    public int getNumRows() {
+        return mNumRows;
+    }
+
+    /**
+     * Sets the height of a row, set it before the rows are created.
+     * @param height default is {@link ViewGroup.LayoutParams#WRAP_CONTENT}
+     */
+    public void setRowHeight(int height) {
+        mRowHeight = height;
+    }
+
+    public int getRowHeight() {
+        return mRowHeight;
+    }
+
+    /**
+     * Sets the focus zoom of the items, set it before the rows are created.
+     */
+    public void setFocusZoomFactor(int factor) {
+        mFocusZoomFactor = factor;
+    }
+
+    public int getFocusZoomFactor() {
+        return mFocusZoomFactor;
+    }
+
+    /**
+     * Drops the saved state of the row, it shows from its first item the next time.
+     */
+    public void removeRowState(long rowId) {
+        mRowStates.remove(rowId);
+    }
+
+    /**
+     * Drops the saved states of all rows, e.g. when the rows are replaced.
+     */
+    public void clearRowStates() {
+        mRowStates.clear();
+    }
+
+    @Override
+    public View onCreateView() {
+        HorizontalGridView gridView = new HorizontalGridView(getContext());
+        gridView.setLayoutParams(new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, mRowHeight));
+        gridView.setNumRows(mNumRows);
+        gridView.setFocusZoomFactor(mFocusZoomFactor);
+        gridView.setSharedViewPool(mSharedViewPool);
+        return gridView;
+    }
+
+    @Override
+    public Presenter.ViewHolder onCreateViewHolder(ViewGroup parent) {
+        return new ViewHolder((HorizontalGridView) onCreateView());
+    }
+
+    @Override
+    public void onBindViewHolder(Presenter.ViewHolder viewHolder, Object item) {
+        ViewHolder holder = (ViewHolder) viewHolder;
+        if (holder.mRow != null) {
+            // rebound without being recycled
+            saveRowState(holder);
+        }
+        ListRow row = (ListRow) item;
+        holder.mRow = row;
+        holder.mGridView.setAdapter(row.getAdapter());
+        if (row.getId() != RowItem.NO_ID) {
+            RowState state = mRowStates.get(row.getId());
+            if (state != null) {
+                holder.mGridView.mLayoutManager.restoreRowState(state);
+            }
+        }
+    }
+
+    @Override
+    public void onUnbindViewHolder(Presenter.ViewHolder viewHolder) {
+        ViewHolder holder = (ViewHolder) viewHolder;
+        if (holder.mRow != null) {
+            saveRowState(holder);
+            holder.mRow = null;
+        }
+        // gives the views of the items back to the pool for the other rows
+        holder.mGridView.setAdapter((RecyclerView.Adapter) null);
+    }
+
+    private void saveRowState(ViewHolder holder) {
+        long rowId = holder.mRow.getId();
+        if (rowId == RowItem.NO_ID) {
+            return;
+        }
+        RowState state = mRowStates.get(rowId);
+        if (state == null) {
+            state = new RowState();
+            mRowStates.put(rowId, state);
+        }
+        holder.mGridView.mLayoutManager.saveRowState(state);
+    }
+}
@@ -0,0 +1,453 @@
+package app.com.tvrecyclerview;
+
+import android.database.Observable;
+
+/**
+ * The items shown by a grid view, with the presenters and the grid style to show
+ * them. Implemented by {@link GridObjectAdapter}, which holds its items in a list,
+ * and {@link PagedGridObjectAdapter}, which loads them page by page.
+ */
+public abstract class ObjectAdapter {
+
+    /**
+     * A DataObserver can be notified when an ObjectAdapter's underlying data
+     * changes. Separate methods provide notifications about different types of
+     * changes.
+     */
+    public static abstract class DataObserver {
+        /**
+         * Called whenever the ObjectAdapter's data has changed in some manner
+         * outside of the set of changes covered by the other range-based change
+         * notification methods.
+         */
+        public void onChanged() {
+        }
+
+        /**
+         * Called when a range of items in the ObjectAdapter has changed. The
+         * basic ordering and structure of the ObjectAdapter has not changed.
+         *
+         * @param positionStart The position of the first item that changed.
+         * @param itemCount The number of items changed.
+         */
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            onChanged();
+        }
+
+        /**
+         * Called when a range of items is inserted into the ObjectAdapter.
+         *
+         * @param positionStart The position of the first inserted item.
+         * @param itemCount The number of items inserted.
+         */
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            onChanged();
+        }
+
+        /**
+         * Called when a range of items is removed from the ObjectAdapter.
+         *
+         * @param positionStart The position of the first removed item.
+         * @param itemCount The number of items removed.
+         */
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            onChanged();
+        }
+
+        /**
+         * Called when an item is moved within the ObjectAdapter.
+         *
+         * @param fromPosition The previous position of the item.
+         * @param toPosition The new position of the item.
+         */
+        public void onItemMoved(int fromPosition, int toPosition) {
+            onChanged();
+        }
+    }
+
+    private static final class DataObservable extends Observable<DataObserver> {
+
+        public void notifyChanged() {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onChanged();
+            }
+        }
+
+        public void notifyItemRangeChanged(int positionStart, int itemCount) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeChanged(positionStart, itemCount);
+            }
+        }
+
+        public void notifyItemRangeInserted(int positionStart, int itemCount) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeInserted(positionStart, itemCount);
+            }
+        }
+
+        public void notifyItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeRemoved(positionStart, itemCount);
+            }
+        }
+
+        public void notifyItemMoved(int fromPosition, int toPosition) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemMoved(fromPosition, toPosition);
+            }
+        }
+    }
+
+    /**
+     * Notifications held back by a batch, merged with the previous one when possible.
+     */
+    private static final class PendingNotifications {
+        private static final int CHANGE = 0;
+        private static final int INSERT = 1;
+        private static final int REMOVE = 2;
+        private static final int MOVE = 3;
+
+        /**
+         * Past this number of notifications a single onChanged() is cheaper.
+         */
+        private static final int MAX_PENDING = 32;
+
+        private final int[] mTypes = new int[MAX_PENDING];
+        private final int[] mStarts = new int[MAX_PENDING];
+        private final int[] mCounts = new int[MAX_PENDING];
+        private int mSize;
+        private boolean mChanged;
+
+        void add(int type, int start, int count) {
+            if (mChanged) {
+                return;
+            }
+            if (mSize > 0 && merge(type, start, count)) {
+                return;
+            }
+            if (mSize == MAX_PENDING) {
+                setChanged();
+                return;
+            }
+            mTypes[mSize] = type;
+            mStarts[mSize] = start;
+            mCounts[mSize] = count;
+            mSize++;
+        }
+
+        /**
+         * Merges the notification into the last one.
+         * @return false if they cannot be merged
+         */
+        private boolean merge(int type, int start, int count) {
+            int last = mSize - 1;
+            if (mTypes[last] != type) {
+                return false;
+            }
+            int lastStart = mStarts[last];
+            int lastCount = mCounts[last];
+            switch (type) {
+                case INSERT:
+                    // inserted within or next to the last inserted range
+                    if (start >= lastStart && start <= lastStart + lastCount) {
+                        mCounts[last] = lastCount + count;
+                        return true;
+                    }
+                    return false;
+                case REMOVE:
+                    if (start == lastStart) {
+                        mCounts[last] = lastCount + count;
+                        return true;
+                    } else if (start + count == lastStart) {
+                        mStarts[last] = start;
+                        mCounts[last] = lastCount + count;
+                        return true;
+                    }
+                    return false;
+                case CHANGE:
+                    if (start <= lastStart + lastCount && start + count >= lastStart) {
+                        int end = Math.max(lastStart + lastCount, start + count);
+                        mStarts[last] = Math.min(lastStart, start);
+                        mCounts[last] = end - mStarts[last];
+                        return true;
+                    }
+                    return false;
+                default:
+                    return false;
+            }
+        }
+
+        void setChanged() {
+            mChanged = true;
+            mSize = 0;
+        }
+
+        void dispatch(DataObservable observable) {
+            if (mChanged) {
+                mChanged = false;
+                observable.notifyChanged();
+                return;
+            }
+            int size = mSize;
+            mSize = 0;
+            for (int i = 0; i < size; i++) {
+                switch (mTypes[i]) {
+                    case INSERT:
+                        observable.notifyItemRangeInserted(mStarts[i], mCounts[i]);
+                        break;
+                    case REMOVE:
+                        observable.notifyItemRangeRemoved(mStarts[i], mCounts[i]);
+                        break;
+                    case MOVE:
+                        observable.notifyItemMoved(mStarts[i], mCounts[i]);
+                        break;
+                    default:
+                        observable.notifyItemRangeChanged(mStarts[i], mCounts[i]);
+                        break;
+                }
+            }
+        }
+    }
+
+    private int mRowSpacing = 0;
+
+    private int mColumnSpacing = 0;
+
+    private int mColumns = 0;
+
+    private float mAspectRatio = 1.0f;
+
+    private boolean mHasStableIds;
+
+    private final DataObservable mObservable = new DataObservable();
+
+    private final PendingNotifications mPendingNotifications = new PendingNotifications();
+
+    /**
+     * Depth of nested batches, notifications are held back while positive
+     */
+    private int mBatchDepth;
+
+    private PresenterSelector mPresenterSelector;
+
+    protected ObjectAdapter() {
+    }
+
+    /**
+     * Constructs an adapter with the given {@link PresenterSelector}.
+     */
+    protected ObjectAdapter(PresenterSelector presenterSelector) {
+        setPresenterSelector(presenterSelector);
+    }
+
+    /**
+     * Constructs an adapter with the given {@link PresenterSelector} and grid style.
+     */
+    protected ObjectAdapter(PresenterSelector presenterSelector,
+                            int rowSpacing, int columnSpacing, int columns,
+                            float aspectRatio) {
+        mRowSpacing = rowSpacing;
+        mColumnSpacing = columnSpacing;
+        mColumns = columns;
+        mAspectRatio = aspectRatio;
+        setPresenterSelector(presenterSelector);
+    }
+
+    public void setGridStyle(int rowSpacing, int columnSpacing, int numRowOrColumns,
+                             float aspectRatio) {
+        mRowSpacing = rowSpacing;
+        mColumnSpacing = columnSpacing;
+        mColumns = numRowOrColumns;
+        mAspectRatio = aspectRatio;
+    }
+
+    /**
+     * Sets the presenter selector.  May not be null.
+     */
+    public final void setPresenterSelector(PresenterSelector presenterSelector) {
+        if (presenterSelector == null) {
+            throw new IllegalArgumentException("Presenter selector must not be null");
+        }
+        final boolean update = (mPresenterSelector != null);
+        mPresenterSelector = presenterSelector;
+
+        if (update) {
+            notifyChanged();
+        }
+    }
+
+    /**
+     * Returns the presenter selector for this ObjectAdapter.
+     */
+    public final PresenterSelector getPresenterSelector() {
+        return mPresenterSelector;
+    }
+
+    /**
+     * Returns the number of items.
+     */
+    public abstract int size();
+
+    /**
+     * Returns the item at the position.
+     */
+    public abstract RowItem get(int position);
+
+    /**
+     * Returns the position of the item with the id, or -1 if not found.
+     */
+    public abstract int indexOfId(long id);
+
+    /**
+     * Returns a number increased by every change of the items or of their layout.
+     */
+    abstract int getModCount();
+
+    public abstract int getItemLeftIndex(int position);
+
+    public abstract int getItemTopIndex(int position);
+
+    public abstract int getItemRowSize(int position);
+
+    public abstract int getItemColumnSize(int position);
+
+    /**
+     * Sets whether the items supply stable ids with {@link RowItem#setId(long)}. The
+     * grid views then keep the views of the items across data set changes.
+     * Must be set before the adapter is set on a grid view.
+     */
+    public void setHasStableIds(boolean hasStableIds) {
+        mHasStableIds = hasStableIds;
+    }
+
+    public boolean hasStableIds() {
+        return mHasStableIds;
+    }
+
+    /**
+     * Returns the id of the item if the adapter has stable ids, the position otherwise.
+     */
+    public long getId(int position) {
+        if (mHasStableIds) {
+            return get(position).getId();
+        }
+        return position;
+    }
+
+    /**
+     * Called when the view of the item at the position is bound by a grid view.
+     */
+    void onItemBound(int position) {
+    }
+
+    /**
+     * Called when the view of the item at the position is attached to a grid view.
+     */
+    void onItemAttached(int position) {
+    }
+
+    /**
+     * Called when the view of the item at the position is detached from a grid view.
+     */
+    void onItemDetached(int position) {
+    }
+
+    /**
+     * Holds back the notifications until the matching {@link #endBatch()}, then sends
+     * them merged into as few ranges as possible. Batches can be nested.
+     */
+    public void beginBatch() {
+        mBatchDepth++;
+    }
+
+    /**
+     * Ends a batch started by {@link #beginBatch()}, sends the held notifications when
+     * the outermost batch ends.
+     */
+    public void endBatch() {
+        if (mBatchDepth <= 0) {
+            throw new IllegalStateException("endBatch() without beginBatch()");
+        }
+        mBatchDepth--;
+        if (mBatchDepth == 0) {
+            mPendingNotifications.dispatch(mObservable);
+        }
+    }
+
+    /**
+     * Registers a DataObserver for data change notifications.
+     */
+    public final void registerObserver(DataObserver observer) {
+        mObservable.registerObserver(observer);
+    }
+
+    /**
+     * Unregisters a DataObserver for data change notifications.
+     */
+    public final void unregisterObserver(DataObserver observer) {
+        mObservable.unregisterObserver(observer);
+    }
+
+    /**
+     * Unregisters all DataObservers for this ObjectAdapter.
+     */
+    public final void unregisterAllObservers() {
+        mObservable.unregisterAll();
+    }
+
+    final protected void notifyItemRangeChanged(int positionStart, int itemCount) {
+        if (mBatchDepth > 0) {
+            mPendingNotifications.add(PendingNotifications.CHANGE, positionStart, itemCount);
+            return;
+        }
+        mObservable.notifyItemRangeChanged(positionStart, itemCount);
+    }
+
+    final protected void notifyItemRangeInserted(int positionStart, int itemCount) {
+        if (mBatchDepth > 0) {
+            mPendingNotifications.add(PendingNotifications.INSERT, positionStart, itemCount);
+            return;
+        }
+        mObservable.notifyItemRangeInserted(positionStart, itemCount);
+    }
+
+    final protected void notifyItemRangeRemoved(int positionStart, int itemCount) {
+        if (mBatchDepth > 0) {
+            mPendingNotifications.add(PendingNotifications.REMOVE, positionStart, itemCount);
+            return;
+        }
+        mObservable.notifyItemRangeRemoved(positionStart, itemCount);
+    }
+
+    final protected void notifyItemMoved(int fromPosition, int toPosition) {
+        if (mBatchDepth > 0) {
+            mPendingNotifications.add(PendingNotifications.MOVE, fromPosition, toPosition);
+            return;
+        }
+        mObservable.notifyItemMoved(fromPosition, toPosition);
+    }
+
+    final protected void notifyChanged() {
+        if (mBatchDepth > 0) {
+            mPendingNotifications.setChanged();
+            return;
+        }
+        mObservable.notifyChanged();
+    }
+
+    public int getColumnSpacing() {
+        return mColumnSpacing;
+    }
+
+    public int getRowSpacing() {
+        return mRowSpacing;
+    }
+
+    public int getColumns() {
+        return mColumns;
+    }
+
+    public float getAspectRatio() {
+        return mAspectRatio;
+    }
+}
@@ -0,0 +1,496 @@
+package app.com.tvrecyclerview;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.List;
+
+/**
+ * An {@link ObjectAdapter} of a known number of items loaded page by page from a
+ * {@link PageLoader}. A page is loaded when an item near it is bound, the items not
+ * loaded yet are placeholders (see {@link #isPlaceholder(Object)}), and the pages far
+ * from the items attached to the grid view are dropped to bound the memory used.
+ *
+ * <p>In a grid with columns the loader lays out the placeholders, see
+ * {@link PageLoader#onBindPlaceholder(int, RowItem)}.</p>
+ */
+public class PagedGridObjectAdapter extends ObjectAdapter {
+
+    /**
+     * Loads the items of the adapter.
+     */
+    public static abstract class PageLoader {
+        /**
+         * Starts loading the items [startPosition, startPosition + itemCount), then
+         * passes them to {@link PageCallback#onPageLoaded(List)} from any thread.
+         */
+        public abstract void loadPage(int startPosition, int itemCount, PageCallback callback);
+
+        /**
+         * Sets where the placeholder of an item not loaded yet is laid out, with the
+         * same x, y, width and height as the item once loaded. Required in a grid with
+         * columns, ignored otherwise. Called once per placeholder.
+         */
+        public void onBindPlaceholder(int position, RowItem placeholder) {
+        }
+    }
+
+    /**
+     * Receives the items of a page, ignored if the adapter has been refreshed since
+     * the load started.
+     */
+    public interface PageCallback {
+        void onPageLoaded(List<RowItem> items);
+
+        /**
+         * The page is loaded again the next time an item near it is bound.
+         */
+        void onPageFailed();
+    }
+
+    private static final class Placeholder extends RowItem {
+    }
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int DEFAULT_MAX_LOADED_PAGES = 8;
+
+    private final PageLoader mLoader;
+
+    private final int mPageSize;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private int mTotalSize;
+
+    /**
+     * Items of each page, null if the page is not loaded
+     */
+    private RowItem[][] mPages;
+
+    /**
+     * Placeholders handed out for the items of each page not loaded, created on
+     * first use and dropped when the page is loaded
+     */
+    private Placeholder[][] mPlaceholders;
+
+    private boolean[] mPageLoading;
+
+    private int mLoadedPageCount;
+
+    private int mMaxLoadedPages = DEFAULT_MAX_LOADED_PAGES;
+
+    /**
+     * Number of items from a bound item to the next page to load
+     */
+    private int mPrefetchDistance;
+
+    /**
+     * Number of attached views bound to the items of each page
+     */
+    private int[] mAttachedCounts;
+
+    /**
+     * Page of the last bound item, the pages are kept around it while no view is
+     * attached
+     */
+    private int mBoundPage;
+
+    /**
+     * Incremented on refresh to drop the pages being loaded
+     */
+    private int mGeneration;
+
+    /**
+     * Increased when a page is loaded or dropped, the layout of its items may change
+     */
+    private int mPageModCount;
+
+    /**
+     * Reused to read the layout of placeholders
+     */
+    private final RowItem mTempPlaceholder = new Placeholder();
+
+    public PagedGridObjectAdapter(Presenter presenter, PageLoader loader, int totalSize) {
+        this(new SinglePresenterSelector(presenter), loader, totalSize, DEFAULT_PAGE_SIZE);
+    }
+
+    public PagedGridObjectAdapter(PresenterSelector presenterSelector, PageLoader loader,
+                                  int totalSize, int pageSize) {
+        super(presenterSelector);
+        if (loader == null) {
+            throw new IllegalArgumentException("PageLoader must not be null");
+        }
+        if (pageSize <= 0 || totalSize < 0) {
+            throw new IllegalArgumentException("Invalid pageSize or totalSize");
+        }
+        mLoader = loader;
+        mPageSize = pageSize;
+        mPrefetchDistance = pageSize / 2;
+        resetPages(totalSize);
+    }
+
+    private void resetPages(int totalSize) {
+        mTotalSize = totalSize;
+        int pageCount = (totalSize + mPageSize - 1) / mPageSize;
+        mPages = new RowItem[pageCount][];
+        mPlaceholders = new Placeholder[pageCount][];
+        mPageLoading = new boolean[pageCount];
+        mAttachedCounts = new int[pageCount];
+        mLoadedPageCount = 0;
+        mBoundPage = 0;
+        mGeneration++;
+        mPageModCount++;
+    }
+
+    /**
+     * Sets the max number of pages kept in memory, at least 3.
+     */
+    public void setMaxLoadedPages(int maxLoadedPages) {
+        if (maxLoadedPages < 3) {
+            throw new IllegalArgumentException("Invalid maxLoadedPages");
+        }
+        mMaxLoadedPages = maxLoadedPages;
+        evictPages();
+    }
+
+    public int getMaxLoadedPages() {
+        return mMaxLoadedPages;
+    }
+
+    /**
+     * Sets how close to a page a bound item needs to be for the page to be loaded.
+     * @param itemCount default is half a page
+     */
+    public void setPrefetchDistance(int itemCount) {
+        if (itemCount < 0 || itemCount > mPageSize) {
+            throw new IllegalArgumentException("Invalid itemCount");
+        }
+        mPrefetchDistance = itemCount;
+    }
+
+    public int getPrefetchDistance() {
+        return mPrefetchDistance;
+    }
+
+    public int getPageSize() {
+        return mPageSize;
+    }
+
+    /**
+     * Drops all the pages and changes the number of items, the visible pages are
+     * loaded again.
+     */
+    public void refresh(int totalSize) {
+        if (totalSize < 0) {
+            throw new IllegalArgumentException("Invalid totalSize");
+        }
+        resetPages(totalSize);
+        notifyChanged();
+    }
+
+    /**
+     * Returns true if the item is a placeholder of an item not loaded yet.
+     */
+    public static boolean isPlaceholder(Object item) {
+        return item instanceof Placeholder;
+    }
+
+    /**
+     * Returns true if the item at the position is loaded.
+     */
+    public boolean isLoaded(int position) {
+        return position >= 0 && position < mTotalSize && mPages[position / mPageSize] != null;
+    }
+
+    @Override
+    public int size() {
+        return mTotalSize;
+    }
+
+    /**
+     * Returns the item at the position, or its placeholder if it is not loaded.
+     * The pages are loaded when the views of their items are bound, not by this call.
+     */
+    @Override
+    public RowItem get(int position) {
+        if (position < 0 || position >= mTotalSize) {
+            throw new IndexOutOfBoundsException("position " + position + " size " + mTotalSize);
+        }
+        RowItem item = peek(position);
+        return item != null ? item : getPlaceholder(position);
+    }
+
+    /**
+     * Loads the page of the bound item and the pages within the prefetch distance.
+     */
+    @Override
+    void onItemBound(int position) {
+        if (position < 0 || position >= mTotalSize) {
+            return;
+        }
+        int page = position / mPageSize;
+        mBoundPage = page;
+        loadPage(page);
+        if (position % mPageSize < mPrefetchDistance) {
+            loadPage(page - 1);
+        }
+        if (mPageSize - 1 - position % mPageSize < mPrefetchDistance) {
+            loadPage(page + 1);
+        }
+    }
+
+    @Override
+    void onItemAttached(int position) {
+        if (position >= 0 && position < mTotalSize) {
+            mAttachedCounts[position / mPageSize]++;
+        }
+    }
+
+    @Override
+    void onItemDetached(int position) {
+        // the counts are reset by a refresh while views are still attached
+        if (position >= 0 && position < mTotalSize && mAttachedCounts[position / mPageSize] > 0) {
+            mAttachedCounts[position / mPageSize]--;
+        }
+    }
+
+    private Placeholder getPlaceholder(int position) {
+        int page = position / mPageSize;
+        Placeholder[] placeholders = mPlaceholders[page];
+        if (placeholders == null) {
+            placeholders = new Placeholder[Math.min(mPageSize, mTotalSize - page * mPageSize)];
+            mPlaceholders[page] = placeholders;
+        }
+        Placeholder placeholder = placeholders[position % mPageSize];
+        if (placeholder == null) {
+            placeholder = new Placeholder();
+            bindPlaceholder(position, placeholder);
+            placeholders[position % mPageSize] = placeholder;
+        }
+        return placeholder;
+    }
+
+    /**
+     * Returns the loaded item at the position without loading it, null if not loaded.
+     */
+    public RowItem peek(int position) {
+        RowItem[] page = mPages[position / mPageSize];
+        return page == null ? null : page[position % mPageSize];
+    }
+
+    private void bindPlaceholder(int position, RowItem placeholder) {
+        placeholder.setPos(position);
+        placeholder.setX(0);
+        placeholder.setY(0);
+        placeholder.setWidth(0);
+        placeholder.setHeight(0);
+        mLoader.onBindPlaceholder(position, placeholder);
+        if (getColumns() > 0 && (placeholder.getWidth() <= 0 || placeholder.getHeight() <= 0)) {
+            // all placeholders would be framed at the first cell
+            throw new IllegalStateException("PageLoader.onBindPlaceholder must lay out "
+                    + "the placeholder at " + position + " in a grid with columns");
+        }
+    }
+
+    /**
+     * Returns the loaded item, or the placeholder describing its layout.
+     */
+    private RowItem getLayoutItem(int position) {
+        RowItem item = peek(position);
+        if (item != null) {
+            return item;
+        }
+        Placeholder[] placeholders = mPlaceholders[position / mPageSize];
+        if (placeholders != null && placeholders[position % mPageSize] != null) {
+            return placeholders[position % mPageSize];
+        }
+        item = mTempPlaceholder;
+        bindPlaceholder(position, item);
+        return item;
+    }
+
+    /**
+     * Returns the position of the loaded item, or -1 if not found.
+     */
+    public int indexOf(RowItem item) {
+        for (int page = 0; page < mPages.length; page++) {
+            RowItem[] items = mPages[page];
+            if (items == null) {
+                continue;
+            }
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] == null ? item == null : items[i].equals(item)) {
+                    return page * mPageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the id of the loaded item if the adapter has stable ids, without
+     * loading it. Placeholders have no id.
+     */
+    @Override
+    public long getId(int position) {
+        if (!hasStableIds()) {
+            return position;
+        }
+        RowItem item = peek(position);
+        return item == null ? RowItem.NO_ID : item.getId();
+    }
+
+    /**
+     * Returns the position of the loaded item with the id, or -1 if not found.
+     */
+    @Override
+    public int indexOfId(long id) {
+        if (id == RowItem.NO_ID) {
+            return -1;
+        }
+        for (int page = 0; page < mPages.length; page++) {
+            RowItem[] items = mPages[page];
+            if (items == null) {
+                continue;
+            }
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] != null && items[i].getId() == id) {
+                    return page * mPageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    int getModCount() {
+        return mPageModCount;
+    }
+
+    @Override
+    public int getItemLeftIndex(int position) {
+        if (position < 0) {
+            return 0;
+        }
+        return position < mTotalSize ? getLayoutItem(position).getX() : 0;
+    }
+
+    @Override
+    public int getItemTopIndex(int position) {
+        if (position < 0) {
+            return 0;
+        }
+        return position < mTotalSize ? getLayoutItem(position).getY() : 0;
+    }
+
+    @Override
+    public int getItemRowSize(int position) {
+        if (position < 0) {
+            return 0;
+        }
+        return position < mTotalSize ? getLayoutItem(position).getHeight() : 1;
+    }
+
+    @Override
+    public int getItemColumnSize(int position) {
+        if (position < 0) {
+            return 0;
+        }
+        return position < mTotalSize ? getLayoutItem(position).getWidth() : 1;
+    }
+
+    private void loadPage(final int page) {
+        if (page < 0 || page >= mPages.length || mPages[page] != null || mPageLoading[page]) {
+            return;
+        }
+        mPageLoading[page] = true;
+        final int generation = mGeneration;
+        final int start = page * mPageSize;
+        final int itemCount = Math.min(mPageSize, mTotalSize - start);
+        // the results are always posted, the page may be loaded synchronously while
+        // the grid view is binding its items
+        mLoader.loadPage(start, itemCount, new PageCallback() {
+            @Override
+            public void onPageLoaded(final List<RowItem> items) {
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            return;
+                        }
+                        mPageLoading[page] = false;
+                        RowItem[] pageItems = new RowItem[itemCount];
+                        for (int i = 0, size = Math.min(itemCount, items.size()); i < size; i++) {
+                            pageItems[i] = items.get(i);
+                        }
+                        mPages[page] = pageItems;
+                        mPlaceholders[page] = null;
+                        mLoadedPageCount++;
+                        mPageModCount++;
+                        evictPages();
+                        notifyItemRangeChanged(start, itemCount);
+                    }
+                });
+            }
+
+            @Override
+            public void onPageFailed() {
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == mGeneration) {
+                            mPageLoading[page] = false;
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops the pages farthest from the pages of the attached views, or from the page
+     * of the last bound item if there is none, until at most
+     * {@link #getMaxLoadedPages()} are kept. The views still bound to their items
+     * are bound again to placeholders.
+     */
+    private void evictPages() {
+        if (mLoadedPageCount <= mMaxLoadedPages) {
+            return;
+        }
+        int firstAttached = -1;
+        int lastAttached = -1;
+        for (int page = 0; page < mAttachedCounts.length; page++) {
+            if (mAttachedCounts[page] > 0) {
+                if (firstAttached < 0) {
+                    firstAttached = page;
+                }
+                lastAttached = page;
+            }
+        }
+        if (firstAttached < 0) {
+            firstAttached = mBoundPage;
+            lastAttached = mBoundPage;
+        }
+        while (mLoadedPageCount > mMaxLoadedPages) {
+            int farthest = -1;
+            int farthestDistance = -1;
+            for (int page = 0; page < mPages.length; page++) {
+                if (mPages[page] == null) {
+                    continue;
+                }
+                int distance = page < firstAttached ? firstAttached - page
+                        : Math.max(page - lastAttached, 0);
+                if (distance > farthestDistance) {
+                    farthest = page;
+                    farthestDistance = distance;
+                }
+            }
+            mPages[farthest] = null;
+            mLoadedPageCount--;
+            mPageModCount++;
+            int start = farthest * mPageSize;
+            notifyItemRangeChanged(start, Math.min(mPageSize, mTotalSize - start));
+        }
+    }
+}
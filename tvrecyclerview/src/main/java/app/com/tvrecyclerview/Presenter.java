@@ -17,11 +17,20 @@ import android.content.Context;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.util.ArrayList;
+
 
 public abstract class Presenter{
 
     private final Context mContext;
 
+    private int mPrewarmCount;
+
+    /**
+     * Views created ahead of time, taken before creating a new one
+     */
+    private final ArrayList<ViewHolder> mPrewarmedViewHolders = new ArrayList<>();
+
     /**
      * ViewHolder can be subclassed and used to cache any view accessors needed
      * to improve binding performance (for example, results of findViewById)
@@ -53,6 +62,58 @@ public abstract class Presenter{
         return new ViewHolder(view);
     }
 
+    /**
+     * Sets the number of views kept ready for the grid views. They are created while
+     * the main thread is idle, so that a scroll rarely has to create a view.
+     * @param count 0 (default) creates the views when they are needed
+     */
+    public void setPrewarmCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid count");
+        }
+        mPrewarmCount = count;
+        for (int i = mPrewarmedViewHolders.size() - 1; i >= count; i--) {
+            mPrewarmedViewHolders.remove(i);
+        }
+    }
+
+    public int getPrewarmCount() {
+        return mPrewarmCount;
+    }
+
+    /**
+     * Returns the number of views ready to be used.
+     */
+    public int getPrewarmedViewCount() {
+        return mPrewarmedViewHolders.size();
+    }
+
+    /**
+     * Releases the views ready to be used, e.g. when memory is low.
+     */
+    public void clearPrewarmedViews() {
+        mPrewarmedViewHolders.clear();
+    }
+
+    boolean needsPrewarm() {
+        return mPrewarmedViewHolders.size() < mPrewarmCount;
+    }
+
+    void prewarm(ViewGroup parent) {
+        mPrewarmedViewHolders.add(onCreateViewHolder(parent));
+    }
+
+    /**
+     * Returns a view created ahead of time if any, a new one otherwise.
+     */
+    final ViewHolder obtainViewHolder(ViewGroup parent) {
+        int size = mPrewarmedViewHolders.size();
+        if (size > 0) {
+            return mPrewarmedViewHolders.remove(size - 1);
+        }
+        return onCreateViewHolder(parent);
+    }
+
     /**
      * Binds a {@link View} to an item.
      */
@@ -0,0 +1,90 @@
+package app.com.tvrecyclerview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.ArrayList;
+
+/**
+ * Creates the views presenters want ready while the main thread is idle, in batches
+ * short enough to fit between two frames. Nothing is created while the grid view
+ * scrolls.
+ */
+final class PresenterPrewarmer implements MessageQueue.IdleHandler, Runnable {
+
+    /**
+     * Time a batch may take, a view is created at least.
+     */
+    private static final long BATCH_BUDGET_NANOS = 4000000L;
+
+    private final RecyclerView mParent;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Presenters wanting more views
+     */
+    private final ArrayList<Presenter> mPresenters = new ArrayList<>();
+
+    private boolean mScheduled;
+
+    PresenterPrewarmer(RecyclerView parent) {
+        mParent = parent;
+    }
+
+    void prewarm(Presenter presenter) {
+        if (!presenter.needsPrewarm() || mPresenters.contains(presenter)) {
+            return;
+        }
+        mPresenters.add(presenter);
+        if (!mScheduled) {
+            mScheduled = true;
+            Looper.myQueue().addIdleHandler(this);
+        }
+    }
+
+    void cancel() {
+        mPresenters.clear();
+        if (mScheduled) {
+            mScheduled = false;
+            Looper.myQueue().removeIdleHandler(this);
+            mHandler.removeCallbacks(this);
+        }
+    }
+
+    @Override
+    public boolean queueIdle() {
+        if (mParent.getScrollState() != RecyclerView.SCROLL_STATE_IDLE) {
+            // called again when idle after the next frame
+            return true;
+        }
+        long start = System.nanoTime();
+        while (!mPresenters.isEmpty()) {
+            int last = mPresenters.size() - 1;
+            Presenter presenter = mPresenters.get(last);
+            if (presenter.needsPrewarm()) {
+                presenter.prewarm(mParent);
+            }
+            if (!presenter.needsPrewarm()) {
+                mPresenters.remove(last);
+            }
+            if (System.nanoTime() - start >= BATCH_BUDGET_NANOS) {
+                break;
+            }
+        }
+        if (mPresenters.isEmpty()) {
+            mScheduled = false;
+            return false;
+        }
+        // an idle queue does not call the idle handlers again until a message comes
+        mHandler.post(this);
+        return true;
+    }
+
+    @Override
+    public void run() {
+        // only wakes up the queue for the next batch
+    }
+}
@@ -0,0 +1,132 @@
+package app.com.tvrecyclerview;
+
+/**
+ * A {@link GridTracer} keeping the latest events in a fixed size in-memory log,
+ * e.g. to attach to a bug report. Recording an event does not allocate, the
+ * oldest events are overwritten when the log is full. Events can be forwarded
+ * to another tracer such as {@link SystemTraceTracer}.
+ */
+public final class RingBufferTracer implements GridTracer {
+
+    private static final byte TYPE_BEGIN = 0;
+    private static final byte TYPE_END = 1;
+    private static final byte TYPE_COUNTER = 2;
+
+    private final GridTracer mDelegate;
+
+    private final byte[] mTypes;
+
+    private final String[] mNames;
+
+    private final long[] mValues;
+
+    /**
+     * {@link System#nanoTime()} of each event
+     */
+    private final long[] mTimes;
+
+    /**
+     * index of the next event to write
+     */
+    private int mNext;
+
+    private int mCount;
+
+    public RingBufferTracer(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param delegate receives every event as well, may be null
+     */
+    public RingBufferTracer(int capacity, GridTracer delegate) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        mDelegate = delegate;
+        mTypes = new byte[capacity];
+        mNames = new String[capacity];
+        mValues = new long[capacity];
+        mTimes = new long[capacity];
+    }
+
+    @Override
+    public void beginSection(String name) {
+        record(TYPE_BEGIN, name, 0);
+        if (mDelegate != null) {
+            mDelegate.beginSection(name);
+        }
+    }
+
+    @Override
+    public void endSection() {
+        record(TYPE_END, null, 0);
+        if (mDelegate != null) {
+            mDelegate.endSection();
+        }
+    }
+
+    @Override
+    public void setCounter(String name, long value) {
+        record(TYPE_COUNTER, name, value);
+        if (mDelegate != null) {
+            mDelegate.setCounter(name, value);
+        }
+    }
+
+    private void record(byte type, String name, long value) {
+        int index = mNext;
+        mTypes[index] = type;
+        mNames[index] = name;
+        mValues[index] = value;
+        mTimes[index] = System.nanoTime();
+        mNext = (index + 1) % mTypes.length;
+        if (mCount < mTypes.length) {
+            mCount++;
+        }
+    }
+
+    /**
+     * Returns the number of events in the log.
+     */
+    public int size() {
+        return mCount;
+    }
+
+    public void clear() {
+        mNext = 0;
+        mCount = 0;
+    }
+
+    /**
+     * Writes the events from the oldest to the latest, one per line.
+     */
+    public void dump(StringBuilder out) {
+        int capacity = mTypes.length;
+        int start = (mNext - mCount + capacity) % capacity;
+        for (int i = 0; i < mCount; i++) {
+            int index = (start + i) % capacity;
+            out.append(mTimes[index]).append(' ');
+            switch (mTypes[index]) {
+                case TYPE_BEGIN:
+                    out.append("begin ").append(mNames[index]);
+                    break;
+                case TYPE_END:
+                    out.append("end");
+                    break;
+                default:
+                    out.append("counter ").append(mNames[index]).append('=')
+                            .append(mValues[index]);
+                    break;
+            }
+            out.append('\n');
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        dump(builder);
+        return builder.toString();
+    }
+}
@@ -1,12 +1,29 @@
 package app.com.tvrecyclerview;
 
 public class RowItem {
+
+    /**
+     * Id of an item without a stable id.
+     */
+    public static final long NO_ID = -1;
+
+    private long mId = NO_ID;
     private int mPos;
     private int mX;
     private int mY;
     private int mWidth;
     private int mHeight;
 
+    /**
+     * Returns the stable id of the item, see {@link GridObjectAdapter#setHasStableIds(boolean)}.
+     */
+    public long getId() {
+        return mId;
+    }
+    public void setId(long id) {
+        this.mId = id;
+    }
+
     public int getPos() {
         return mPos;
     }
@@ -0,0 +1,62 @@
+package app.com.tvrecyclerview;
+
+import java.lang.ref.WeakReference;
+
+import app.com.tvrecyclerview.core.FramePlan;
+import app.com.tvrecyclerview.core.GridFrameSpec;
+import app.com.tvrecyclerview.core.ItemFrameStore;
+
+/**
+ * What a row of a browse page needs to show again where it was left: the scroll
+ * offset, the focused item and the frames of the laid out items. It is filled by
+ * {@link GridLayoutManager#saveRowState(RowState)} when the row view is recycled
+ * and reused for every later save of the same row.
+ */
+final class RowState {
+
+    /**
+     * The adapter the state was saved with, the frames are only valid for it. Not
+     * kept alive by the state, the row may have been given another adapter since.
+     */
+    WeakReference<ObjectAdapter> mAdapter;
+
+    /**
+     * {@link ObjectAdapter#getModCount()} when the state was saved
+     */
+    int mModCount;
+
+    int mItemCount;
+
+    int mFocusPosition;
+
+    int mSubFocusPosition;
+
+    int mHorizontalOffset;
+
+    int mVerticalOffset;
+
+    int mTotalSize;
+
+    float mOriItemWidth;
+
+    float mOriItemHeight;
+
+    int mExtraChildHeight;
+
+    /**
+     * What the frames are computed from, null until the state is saved
+     */
+    int[] mLayoutGeometry;
+
+    GridFrameSpec mFrameSpec;
+
+    /**
+     * The applied frame plan, the frames are not copied when there is one
+     */
+    FramePlan mFramePlan;
+
+    /**
+     * Copy of the frames laid out without a plan, created on first use
+     */
+    ItemFrameStore mFrames;
+}
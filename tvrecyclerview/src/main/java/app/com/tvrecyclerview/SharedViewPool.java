@@ -0,0 +1,77 @@
+package app.com.tvrecyclerview;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * A {@link RecyclerView.RecycledViewPool} shared by the grid views of a page, set it with
+ * {@link BaseGridView#setSharedViewPool(SharedViewPool)}. Each presenter gets the same
+ * view type in every grid view, so a view scrolled out of one grid view can be bound
+ * again by another one without being created.
+ */
+public class SharedViewPool extends RecyclerView.RecycledViewPool {
+
+    /**
+     * Default number of views kept for a presenter, same as RecyclerView.
+     */
+    public static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    /**
+     * The view type of a presenter is its index.
+     */
+    private final ArrayList<Presenter> mPresenters = new ArrayList<>();
+
+    private final IdentityHashMap<Presenter, Integer> mPresenterTypes = new IdentityHashMap<>();
+
+    private final ArrayList<Integer> mMaxRecycledViews = new ArrayList<>();
+
+    /**
+     * Returns the view type of the presenter, the same for all the grid views
+     * sharing this pool.
+     */
+    public int getViewType(Presenter presenter) {
+        Integer type = mPresenterTypes.get(presenter);
+        if (type == null) {
+            mPresenters.add(presenter);
+            type = mPresenters.size() - 1;
+            mPresenterTypes.put(presenter, type);
+        }
+        return type;
+    }
+
+    /**
+     * Returns the presenter of a view type returned by {@link #getViewType(Presenter)}.
+     */
+    public Presenter getPresenter(int viewType) {
+        return mPresenters.get(viewType);
+    }
+
+    /**
+     * Sets the number of views kept for the presenter, e.g. the number of items
+     * it presents in two rows of the page.
+     */
+    public void setMaxRecycledViews(Presenter presenter, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Invalid max");
+        }
+        int type = getViewType(presenter);
+        while (mMaxRecycledViews.size() <= type) {
+            mMaxRecycledViews.add(DEFAULT_MAX_RECYCLED_VIEWS);
+        }
+        mMaxRecycledViews.set(type, max);
+        setMaxRecycledViews(type, max);
+    }
+
+    /**
+     * Returns the number of views kept for the presenter.
+     */
+    public int getMaxRecycledViews(Presenter presenter) {
+        Integer type = mPresenterTypes.get(presenter);
+        if (type == null || type >= mMaxRecycledViews.size()) {
+            return DEFAULT_MAX_RECYCLED_VIEWS;
+        }
+        return mMaxRecycledViews.get(type);
+    }
+}
@@ -0,0 +1,62 @@
+package app.com.tvrecyclerview;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.lang.reflect.Method;
+
+/**
+ * A {@link GridTracer} writing to {@link Trace}, the sections show up in systrace
+ * and Perfetto. Sections need API 18, counters need API 29, older platforms
+ * ignore them.
+ */
+public final class SystemTraceTracer implements GridTracer {
+
+    private static Method sSetCounter;
+
+    private static boolean sSetCounterResolved;
+
+    @Override
+    public void beginSection(String name) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(name);
+        }
+    }
+
+    @Override
+    public void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+
+    @Override
+    public void setCounter(String name, long value) {
+        Method setCounter = getSetCounterMethod();
+        if (setCounter == null) {
+            return;
+        }
+        try {
+            setCounter.invoke(null, name, value);
+        } catch (Exception e) {
+            sSetCounter = null;
+        }
+    }
+
+    /**
+     * Trace.setCounter is newer than the compile SDK, so it is looked up once.
+     */
+    private static Method getSetCounterMethod() {
+        if (!sSetCounterResolved) {
+            sSetCounterResolved = true;
+            if (Build.VERSION.SDK_INT >= 29) {
+                try {
+                    sSetCounter = Trace.class.getMethod("setCounter", String.class, long.class);
+                } catch (NoSuchMethodException e) {
+                    sSetCounter = null;
+                }
+            }
+        }
+        return sSetCounter;
+    }
+}
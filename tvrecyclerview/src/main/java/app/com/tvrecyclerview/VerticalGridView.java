@@ -2,10 +2,13 @@ package app.com.tvrecyclerview;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.util.AttributeSet;
 
 public class VerticalGridView extends BaseGridView {
 
+    private final FadingEdgeRenderer mFadingEdges = new FadingEdgeRenderer(this, false);
+
     public VerticalGridView(Context context) {
         this(context, null);
     }
@@ -39,4 +42,99 @@ public class VerticalGridView extends BaseGridView {
         requestLayout();
     }
 
+    /**
+     * Sets the fade out top edge to transparent.  The content is drawn once and the
+     * edge is masked by a gradient, while fading the view draws into a hardware layer.
+     */
+    public final void setFadingTopEdge(boolean fading) {
+        mFadingEdges.setLowEnabled(fading);
+    }
+
+    /**
+     * Returns true if top edge fading is enabled.
+     */
+    public final boolean getFadingTopEdge() {
+        return mFadingEdges.isLowEnabled();
+    }
+
+    /**
+     * Sets the top edge fading length in pixels.
+     */
+    public final void setFadingTopEdgeLength(int fadeLength) {
+        mFadingEdges.setLowLength(fadeLength);
+    }
+
+    /**
+     * Returns the top edge fading length in pixels.
+     */
+    public final int getFadingTopEdgeLength() {
+        return mFadingEdges.getLowLength();
+    }
+
+    /**
+     * Sets the distance in pixels between fading start position and top padding edge.
+     * The fading start position is positive when start position is inside top padding
+     * area.  Default value is 0, means that the fading starts from top padding edge.
+     */
+    public final void setFadingTopEdgeOffset(int fadeOffset) {
+        mFadingEdges.setLowOffset(fadeOffset);
+    }
+
+    /**
+     * Returns the distance in pixels between fading start position and top padding edge.
+     */
+    public final int getFadingTopEdgeOffset() {
+        return mFadingEdges.getLowOffset();
+    }
+
+    /**
+     * Sets the fade out bottom edge to transparent.  The content is drawn once and the
+     * edge is masked by a gradient, while fading the view draws into a hardware layer.
+     */
+    public final void setFadingBottomEdge(boolean fading) {
+        mFadingEdges.setHighEnabled(fading);
+    }
+
+    /**
+     * Returns true if bottom edge fading is enabled.
+     */
+    public final boolean getFadingBottomEdge() {
+        return mFadingEdges.isHighEnabled();
+    }
+
+    /**
+     * Sets the bottom edge fading length in pixels.
+     */
+    public final void setFadingBottomEdgeLength(int fadeLength) {
+        mFadingEdges.setHighLength(fadeLength);
+    }
+
+    /**
+     * Returns the bottom edge fading length in pixels.
+     */
+    public final int getFadingBottomEdgeLength() {
+        return mFadingEdges.getHighLength();
+    }
+
+    /**
+     * Sets the distance in pixels between fading start position and bottom padding edge.
+     * The fading start position is positive when start position is inside bottom padding
+     * area.  Default value is 0, means that the fading starts from bottom padding edge.
+     */
+    public final void setFadingBottomEdgeOffset(int fadeOffset) {
+        mFadingEdges.setHighOffset(fadeOffset);
+    }
+
+    /**
+     * Returns the distance in pixels between fading start position and bottom padding edge.
+     */
+    public final int getFadingBottomEdgeOffset() {
+        return mFadingEdges.getHighOffset();
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        super.draw(canvas);
+        mFadingEdges.drawEdges(canvas);
+    }
 }
@@ -0,0 +1,90 @@
+package app.com.tvrecyclerview;
+
+import java.util.Arrays;
+
+/**
+ * View type resolved for each position of an adapter, kept in step with the range
+ * notifications of the adapter so that an item is only resolved again after it
+ * changed.
+ */
+final class ViewTypeCache {
+
+    private static final int UNKNOWN = -1;
+
+    private int[] mTypes = new int[0];
+
+    /**
+     * Number of positions tracked, the ones past it are unknown
+     */
+    private int mSize;
+
+    /**
+     * Returns the cached type of the position, or -1.
+     */
+    int get(int position) {
+        return position < mSize ? mTypes[position] : UNKNOWN;
+    }
+
+    void put(int position, int type) {
+        if (position >= mSize) {
+            ensureCapacity(position + 1);
+            Arrays.fill(mTypes, mSize, position, UNKNOWN);
+            mSize = position + 1;
+        }
+        mTypes[position] = type;
+    }
+
+    void clear() {
+        mSize = 0;
+    }
+
+    void onItemRangeChanged(int positionStart, int itemCount) {
+        if (positionStart < mSize) {
+            Arrays.fill(mTypes, positionStart, Math.min(positionStart + itemCount, mSize),
+                    UNKNOWN);
+        }
+    }
+
+    void onItemRangeInserted(int positionStart, int itemCount) {
+        if (positionStart >= mSize) {
+            return;
+        }
+        ensureCapacity(mSize + itemCount);
+        System.arraycopy(mTypes, positionStart, mTypes, positionStart + itemCount,
+                mSize - positionStart);
+        Arrays.fill(mTypes, positionStart, positionStart + itemCount, UNKNOWN);
+        mSize += itemCount;
+    }
+
+    void onItemRangeRemoved(int positionStart, int itemCount) {
+        if (positionStart >= mSize) {
+            return;
+        }
+        int end = Math.min(positionStart + itemCount, mSize);
+        System.arraycopy(mTypes, end, mTypes, positionStart, mSize - end);
+        mSize -= end - positionStart;
+    }
+
+    void onItemMoved(int fromPosition, int toPosition) {
+        if (fromPosition >= mSize || toPosition >= mSize) {
+            // only the moved item is unknown, but its place in the cache is not
+            mSize = Math.min(mSize, Math.min(fromPosition, toPosition));
+            return;
+        }
+        int type = mTypes[fromPosition];
+        if (fromPosition < toPosition) {
+            System.arraycopy(mTypes, fromPosition + 1, mTypes, fromPosition,
+                    toPosition - fromPosition);
+        } else {
+            System.arraycopy(mTypes, toPosition, mTypes, toPosition + 1,
+                    fromPosition - toPosition);
+        }
+        mTypes[toPosition] = type;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > mTypes.length) {
+            mTypes = Arrays.copyOf(mTypes, Math.max(capacity, mTypes.length * 2));
+        }
+    }
+}
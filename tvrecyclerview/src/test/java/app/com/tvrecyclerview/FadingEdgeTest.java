@@ -0,0 +1,188 @@
+package app.com.tvrecyclerview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks where {@link HorizontalGridView} and {@link VerticalGridView} draw the masks
+ * of their fading edges, along the scrolling direction.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FadingEdgeTest {
+
+    private static final int ITEM_COUNT = 200;
+
+    private static final int LENGTH = 40;
+
+    @Test
+    public void horizontal_masksVisiblePartOfFade_whenPaddingIsShorterThanFade() {
+        GridScrollHarness harness = GridScrollHarness.create(true, 2, ITEM_COUNT);
+        HorizontalGridView gridView = (HorizontalGridView) harness.getGridView();
+        harness.scrollBy(GridScrollHarness.ITEM_SIZE);
+        gridView.setPadding(20, 0, 20, 0);
+        gridView.setFadingLeftEdge(true);
+        gridView.setFadingLeftEdgeLength(LENGTH);
+        gridView.setFadingRightEdge(true);
+        gridView.setFadingRightEdgeLength(LENGTH);
+
+        List<int[]> masks = drawMasks(gridView, true);
+        int width = GridScrollHarness.SCREEN_WIDTH;
+        assertEquals(2, masks.size());
+        assertMask(masks.get(0), -20, 0, 20);
+        assertMask(masks.get(1), width - 20, width - 20, width);
+    }
+
+    @Test
+    public void horizontal_masksFromViewEdge_whenPaddingIsLongerThanFade() {
+        GridScrollHarness harness = GridScrollHarness.create(true, 2, ITEM_COUNT);
+        HorizontalGridView gridView = (HorizontalGridView) harness.getGridView();
+        harness.scrollBy(GridScrollHarness.ITEM_SIZE);
+        gridView.setPadding(100, 0, 0, 0);
+        gridView.setFadingLeftEdge(true);
+        gridView.setFadingLeftEdgeLength(LENGTH);
+        gridView.setFadingLeftEdgeOffset(10);
+
+        List<int[]> masks = drawMasks(gridView, true);
+        assertEquals(1, masks.size());
+        assertMask(masks.get(0), 50, 0, 90);
+    }
+
+    @Test
+    public void horizontal_highEdgeFadesIntoPadding_likeLowEdge() {
+        GridScrollHarness harness = GridScrollHarness.create(true, 2, ITEM_COUNT);
+        HorizontalGridView gridView = (HorizontalGridView) harness.getGridView();
+        harness.scrollBy(GridScrollHarness.ITEM_SIZE);
+        gridView.setPadding(100, 0, 100, 0);
+        gridView.setFadingLeftEdge(true);
+        gridView.setFadingLeftEdgeLength(LENGTH);
+        gridView.setFadingRightEdge(true);
+        gridView.setFadingRightEdgeLength(LENGTH);
+
+        List<int[]> masks = drawMasks(gridView, true);
+        int width = GridScrollHarness.SCREEN_WIDTH;
+        assertEquals(2, masks.size());
+        // the low fade ends and the high fade starts at the content edge
+        assertMask(masks.get(0), 60, 0, 100);
+        assertMask(masks.get(1), width - 100, width - 100, width);
+    }
+
+    @Test
+    public void vertical_masksVisiblePartOfFade_whenPaddingIsShorterThanFade() {
+        GridScrollHarness harness = GridScrollHarness.create(false, 5, ITEM_COUNT);
+        VerticalGridView gridView = (VerticalGridView) harness.getGridView();
+        harness.scrollBy(GridScrollHarness.ITEM_SIZE);
+        gridView.setPadding(0, 20, 0, 20);
+        gridView.setFadingTopEdge(true);
+        gridView.setFadingTopEdgeLength(LENGTH);
+        gridView.setFadingBottomEdge(true);
+        gridView.setFadingBottomEdgeLength(LENGTH);
+
+        List<int[]> masks = drawMasks(gridView, false);
+        int height = GridScrollHarness.SCREEN_HEIGHT;
+        assertEquals(2, masks.size());
+        assertMask(masks.get(0), -20, 0, 20);
+        assertMask(masks.get(1), height - 20, height - 20, height);
+    }
+
+    @Test
+    public void noLowMask_beforeScrolling() {
+        GridScrollHarness harness = GridScrollHarness.create(false, 5, ITEM_COUNT);
+        VerticalGridView gridView = (VerticalGridView) harness.getGridView();
+        gridView.setFadingTopEdge(true);
+        gridView.setFadingTopEdgeLength(LENGTH);
+
+        assertEquals(0, drawMasks(gridView, false).size());
+    }
+
+    /**
+     * Draws the grid view and returns the masks drawn with a shader, each as the shader
+     * origin and the masked range along the scrolling direction.
+     */
+    private static List<int[]> drawMasks(BaseGridView gridView, boolean horizontal) {
+        MaskCanvas canvas = new MaskCanvas(horizontal);
+        gridView.draw(canvas);
+        return canvas.mMasks;
+    }
+
+    private static void assertMask(int[] mask, int origin, int start, int end) {
+        assertEquals("origin", origin, mask[0]);
+        assertEquals("start", start, mask[1]);
+        assertEquals("end", end, mask[2]);
+    }
+
+    /**
+     * Follows the translations of the canvas and records the rectangles drawn with a
+     * shader in view coordinates.
+     */
+    private static final class MaskCanvas extends Canvas {
+
+        final List<int[]> mMasks = new ArrayList<>();
+
+        private final boolean mHorizontal;
+
+        private final List<float[]> mSaved = new ArrayList<>();
+
+        private float mDx;
+
+        private float mDy;
+
+        MaskCanvas(boolean horizontal) {
+            mHorizontal = horizontal;
+        }
+
+        @Override
+        public int save() {
+            mSaved.add(new float[] {mDx, mDy});
+            return mSaved.size();
+        }
+
+        @Override
+        public int save(int saveFlags) {
+            return save();
+        }
+
+        @Override
+        public void restore() {
+            restoreToCount(mSaved.size());
+        }
+
+        @Override
+        public void restoreToCount(int saveCount) {
+            float[] saved = mSaved.get(saveCount - 1);
+            mDx = saved[0];
+            mDy = saved[1];
+            while (mSaved.size() >= saveCount) {
+                mSaved.remove(mSaved.size() - 1);
+            }
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+            mDx += dx;
+            mDy += dy;
+        }
+
+        @Override
+        public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+            if (paint.getShader() == null) {
+                return;
+            }
+            if (mHorizontal) {
+                mMasks.add(new int[] {(int) mDx, (int) (left + mDx), (int) (right + mDx)});
+            } else {
+                mMasks.add(new int[] {(int) mDy, (int) (top + mDy), (int) (bottom + mDy)});
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package app.com.tvrecyclerview;
+
+import android.view.KeyEvent;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that moving the focus of a regular grid along its primary direction reaches
+ * the items which are not attached yet.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class GridFocusSearchTest {
+
+    private static final int ITEM_COUNT = 200;
+
+    private static final int MOVES = 12;
+
+    @Test
+    public void horizontal_focusReachesItemsBeyondViewport() {
+        GridScrollHarness harness = GridScrollHarness.create(true, 2, ITEM_COUNT);
+        for (int i = 0; i < MOVES; i++) {
+            harness.pressKey(KeyEvent.KEYCODE_DPAD_RIGHT);
+        }
+        assertEquals(MOVES * 2, getFocusedPosition(harness.getGridView()));
+    }
+
+    @Test
+    public void vertical_focusReachesItemsBeyondViewport() {
+        GridScrollHarness harness = GridScrollHarness.create(false, 5, ITEM_COUNT);
+        for (int i = 0; i < MOVES; i++) {
+            harness.pressKey(KeyEvent.KEYCODE_DPAD_DOWN);
+        }
+        assertEquals(MOVES * 5, getFocusedPosition(harness.getGridView()));
+    }
+
+    @Test
+    public void vertical_focusComesBackToFirstLine() {
+        GridScrollHarness harness = GridScrollHarness.create(false, 5, ITEM_COUNT);
+        harness.pressKey(KeyEvent.KEYCODE_DPAD_RIGHT);
+        for (int i = 0; i < MOVES; i++) {
+            harness.pressKey(KeyEvent.KEYCODE_DPAD_DOWN);
+        }
+        for (int i = 0; i < MOVES; i++) {
+            harness.pressKey(KeyEvent.KEYCODE_DPAD_UP);
+        }
+        assertEquals(1, getFocusedPosition(harness.getGridView()));
+    }
+
+    private static int getFocusedPosition(BaseGridView gridView) {
+        View focused = gridView.getFocusedChild();
+        assertTrue("no item has the focus", focused != null);
+        return gridView.getChildAdapterPosition(focused);
+    }
+}
@@ -0,0 +1,98 @@
+package app.com.tvrecyclerview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the positions {@link GridObjectAdapter#indexOfId(long)} finds after the
+ * items have changed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class GridObjectAdapterIdTest {
+
+    private static final int LARGE_ITEM_COUNT = 1000;
+
+    private GridObjectAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mAdapter = new GridObjectAdapter();
+        for (int i = 1; i <= 3; i++) {
+            RowItem item = new RowItem();
+            item.setId(i);
+            mAdapter.add(item);
+        }
+        // indexes all items
+        assertEquals(2, mAdapter.indexOfId(3));
+    }
+
+    @Test
+    public void removedTrailingItem_isNotFound() {
+        mAdapter.removeRange(2, 1);
+        assertEquals(-1, mAdapter.indexOfId(3));
+        assertEquals(1, mAdapter.indexOfId(2));
+    }
+
+    @Test
+    public void removedTrailingItems_areNotFound() {
+        mAdapter.removeRange(1, 2);
+        assertEquals(-1, mAdapter.indexOfId(3));
+        assertEquals(-1, mAdapter.indexOfId(2));
+        assertEquals(0, mAdapter.indexOfId(1));
+    }
+
+    @Test
+    public void itemsAfterRemovedItem_areFoundAtNewPosition() {
+        mAdapter.removeRange(0, 1);
+        assertEquals(-1, mAdapter.indexOfId(1));
+        assertEquals(1, mAdapter.indexOfId(3));
+        assertEquals(0, mAdapter.indexOfId(2));
+    }
+
+    @Test
+    public void insertAtStart_shiftsIndexWithoutRebuild() {
+        GridObjectAdapter adapter = new GridObjectAdapter();
+        for (int i = 0; i < LARGE_ITEM_COUNT; i++) {
+            adapter.add(new CountingItem(i));
+        }
+        assertEquals(LARGE_ITEM_COUNT - 1, adapter.indexOfId(LARGE_ITEM_COUNT - 1));
+
+        adapter.add(0, new CountingItem(LARGE_ITEM_COUNT));
+        CountingItem.sIdReads = 0;
+        assertEquals(0, adapter.indexOfId(LARGE_ITEM_COUNT));
+        assertEquals(LARGE_ITEM_COUNT, adapter.indexOfId(LARGE_ITEM_COUNT - 1));
+        assertEquals(1, adapter.indexOfId(0));
+        // only the found items are checked, no item is indexed again
+        assertEquals(3, CountingItem.sIdReads);
+
+        adapter.removeRange(0, 2);
+        CountingItem.sIdReads = 0;
+        assertEquals(-1, adapter.indexOfId(0));
+        assertEquals(0, adapter.indexOfId(1));
+        assertEquals(LARGE_ITEM_COUNT - 2, adapter.indexOfId(LARGE_ITEM_COUNT - 1));
+        assertEquals(2, CountingItem.sIdReads);
+    }
+
+    /**
+     * Counts the reads of the ids, indexing the items reads all of them.
+     */
+    private static final class CountingItem extends RowItem {
+        static int sIdReads;
+
+        CountingItem(long id) {
+            setId(id);
+        }
+
+        @Override
+        public long getId() {
+            sIdReads++;
+            return super.getId();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package app.com.tvrecyclerview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the notifications {@link GridObjectAdapter#submitList} sends for a diff.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class GridObjectAdapterSubmitListTest {
+
+    private static final int ITEM_COUNT = 200;
+
+    private static final GridObjectAdapter.ItemCallback ID_CALLBACK =
+            new GridObjectAdapter.ItemCallback() {
+                @Override
+                public boolean areItemsTheSame(RowItem oldItem, RowItem newItem) {
+                    return oldItem.getId() == newItem.getId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(RowItem oldItem, RowItem newItem) {
+                    return true;
+                }
+            };
+
+    /**
+     * Counts the notifications, the range ones do not fall back to onChanged().
+     */
+    private static class CountingObserver extends GridObjectAdapter.DataObserver {
+        int mChanged;
+        int mRanges;
+
+        @Override
+        public void onChanged() {
+            mChanged++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            mRanges++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mRanges++;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mRanges++;
+        }
+
+        @Override
+        public void onItemMoved(int fromPosition, int toPosition) {
+            mRanges++;
+        }
+    }
+
+    private static RowItem createItem(long id) {
+        RowItem item = new RowItem();
+        item.setId(id);
+        return item;
+    }
+
+    @Test
+    public void largeDiff_isNotSentAsDataSetChange() {
+        GridObjectAdapter adapter = new GridObjectAdapter();
+        adapter.setDiffExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+        List<RowItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(createItem(i));
+        }
+        adapter.setItems(items);
+        CountingObserver observer = new CountingObserver();
+        adapter.registerObserver(observer);
+
+        // swaps 50 scattered pairs, far more moves than a batch holds
+        List<RowItem> newItems = new ArrayList<>(items);
+        for (int i = 0; i + 1 < ITEM_COUNT; i += 4) {
+            RowItem item = newItems.get(i);
+            newItems.set(i, newItems.get(i + 1));
+            newItems.set(i + 1, item);
+        }
+        adapter.submitList(newItems, ID_CALLBACK);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        assertEquals(0, observer.mChanged);
+        assertTrue("ranges " + observer.mRanges, observer.mRanges > 32);
+        assertEquals(1, adapter.get(0).getId());
+        assertEquals(0, adapter.get(1).getId());
+    }
+}
@@ -0,0 +1,45 @@
+package app.com.tvrecyclerview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that a steady-state scroll step of {@link GridLayoutManager}, with the
+ * recycling and filling of items it brings, does not allocate. The steps are not a
+ * multiple of the item size, so they bring in and recycle items at varying offsets.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class GridScrollAllocationTest {
+
+    private static final int ITEM_COUNT = 2000;
+
+    private static final int STEP = 37;
+
+    @Test
+    public void horizontalScrollStep_doesNotAllocate() {
+        checkScrollSteps(GridScrollHarness.create(true, 2, ITEM_COUNT));
+    }
+
+    @Test
+    public void verticalScrollStep_doesNotAllocate() {
+        checkScrollSteps(GridScrollHarness.create(false, 5, ITEM_COUNT));
+    }
+
+    private static void checkScrollSteps(GridScrollHarness harness) {
+        assumeTrue(harness.measuresAllocations());
+        // fills the view pool and the reused lists of the layout manager
+        harness.warmUpScroll(STEP, 100);
+        harness.warmUpScroll(-STEP, 50);
+        harness.warmUpScroll(STEP, 50);
+
+        GridScrollHarness.Budget budget = new GridScrollHarness.Budget();
+        budget.maxAllocatedBytes = 0;
+        harness.scrollByWithinBudget(STEP, 200, budget);
+        harness.scrollByWithinBudget(-STEP, 100, budget);
+    }
+}
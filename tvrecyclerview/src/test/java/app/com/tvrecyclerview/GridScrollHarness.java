@@ -0,0 +1,339 @@
+package app.com.tvrecyclerview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.KeyEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.robolectric.Robolectric;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Drives a {@link BaseGridView} inside a Robolectric activity with synthetic
+ * {@link GridObjectAdapter} data and records, for every D-pad key press or scroll
+ * step, how many views were created, bound, recycled and measured, how many layout
+ * passes the grid ran and how many bytes the main thread allocated.
+ */
+final class GridScrollHarness {
+
+    static final int SCREEN_WIDTH = 1920;
+
+    static final int SCREEN_HEIGHT = 1080;
+
+    static final int ITEM_SIZE = 300;
+
+    /**
+     * Work done for one key press or scroll step.
+     */
+    static final class KeyPressStats {
+        int creates;
+        int binds;
+        int recycles;
+        int measures;
+        int layoutPasses;
+        long allocatedBytes;
+
+        @Override
+        public String toString() {
+            return "creates=" + creates + " binds=" + binds + " recycles=" + recycles
+                    + " measures=" + measures + " layoutPasses=" + layoutPasses
+                    + " allocatedBytes=" + allocatedBytes;
+        }
+    }
+
+    /**
+     * The most work a single key press or scroll step may do, a negative value is
+     * not checked.
+     */
+    static final class Budget {
+        int maxCreates = -1;
+        int maxBinds = -1;
+        int maxRecycles = -1;
+        int maxMeasures = -1;
+        int maxLayoutPasses = -1;
+        long maxAllocatedBytes = -1;
+    }
+
+    private final Activity mActivity;
+
+    private final BaseGridView mGridView;
+
+    private final CountingPresenter mPresenter;
+
+    private int mRecycles;
+
+    private int mLayoutPasses;
+
+    private final ThreadMXBean mThreadBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Creates a horizontal grid of the given rows, or a vertical grid of the
+     * given columns, showing itemCount items.
+     */
+    static GridScrollHarness create(boolean horizontal, int rowsOrColumns, int itemCount) {
+        return new GridScrollHarness(horizontal, rowsOrColumns, itemCount);
+    }
+
+    private GridScrollHarness(boolean horizontal, int rowsOrColumns, int itemCount) {
+        mActivity = Robolectric.setupActivity(Activity.class);
+        if (horizontal) {
+            HorizontalGridView gridView = new HorizontalGridView(mActivity) {
+                @Override
+                protected void onLayout(boolean changed, int l, int t, int r, int b) {
+                    mLayoutPasses++;
+                    super.onLayout(changed, l, t, r, b);
+                }
+            };
+            gridView.setNumRows(rowsOrColumns);
+            mGridView = gridView;
+        } else {
+            VerticalGridView gridView = new VerticalGridView(mActivity) {
+                @Override
+                protected void onLayout(boolean changed, int l, int t, int r, int b) {
+                    mLayoutPasses++;
+                    super.onLayout(changed, l, t, r, b);
+                }
+            };
+            gridView.setNumColumns(rowsOrColumns);
+            mGridView = gridView;
+        }
+        mGridView.setRecyclerListener(new RecyclerView.RecyclerListener() {
+            @Override
+            public void onViewRecycled(RecyclerView.ViewHolder holder) {
+                mRecycles++;
+            }
+        });
+        FrameLayout root = new FrameLayout(mActivity);
+        root.addView(mGridView, new FrameLayout.LayoutParams(SCREEN_WIDTH, SCREEN_HEIGHT));
+        mActivity.setContentView(root);
+
+        mPresenter = new CountingPresenter(mActivity);
+        GridObjectAdapter adapter = new GridObjectAdapter(mPresenter);
+        for (int i = 0; i < itemCount; i++) {
+            RowItem item = new RowItem();
+            item.setPos(i);
+            adapter.add(item);
+        }
+        mGridView.setAdapter(adapter);
+        drainMainLooper();
+        View first = mGridView.getChildAt(0);
+        assertTrue("no item is laid out", first != null);
+        first.requestFocus();
+        drainMainLooper();
+    }
+
+    BaseGridView getGridView() {
+        return mGridView;
+    }
+
+    /**
+     * Presses a D-pad key and runs the main looper until the grid settles.
+     */
+    KeyPressStats pressKey(int keyCode) {
+        KeyPressStats stats = begin();
+        KeyEvent down = new KeyEvent(KeyEvent.ACTION_DOWN, keyCode);
+        if (!mActivity.dispatchKeyEvent(down)) {
+            moveFocus(keyCode);
+        }
+        mActivity.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_UP, keyCode));
+        drainMainLooper();
+        return end(stats);
+    }
+
+    /**
+     * Scrolls the grid along its primary direction through
+     * {@link RecyclerView#scrollBy(int, int)}, the main looper runs only after the
+     * step is recorded.
+     */
+    KeyPressStats scrollBy(int distance) {
+        KeyPressStats stats = begin();
+        if (mGridView instanceof HorizontalGridView) {
+            mGridView.scrollBy(distance, 0);
+        } else {
+            mGridView.scrollBy(0, distance);
+        }
+        end(stats);
+        drainMainLooper();
+        return stats;
+    }
+
+    /**
+     * Returns true if the allocated bytes are measured, they read 0 otherwise.
+     */
+    boolean measuresAllocations() {
+        if (!(mThreadBean instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) mThreadBean;
+        return bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Records the counters before a step, the stats hold them until {@link #end}.
+     */
+    private KeyPressStats begin() {
+        KeyPressStats stats = new KeyPressStats();
+        stats.creates = mPresenter.mCreates;
+        stats.binds = mPresenter.mBinds;
+        stats.measures = mPresenter.mMeasures;
+        stats.recycles = mRecycles;
+        stats.layoutPasses = mLayoutPasses;
+        stats.allocatedBytes = getAllocatedBytes();
+        return stats;
+    }
+
+    /**
+     * Turns the counters recorded by {@link #begin()} into the work done since.
+     */
+    private KeyPressStats end(KeyPressStats stats) {
+        stats.allocatedBytes = getAllocatedBytes() - stats.allocatedBytes;
+        stats.creates = mPresenter.mCreates - stats.creates;
+        stats.binds = mPresenter.mBinds - stats.binds;
+        stats.measures = mPresenter.mMeasures - stats.measures;
+        stats.recycles = mRecycles - stats.recycles;
+        stats.layoutPasses = mLayoutPasses - stats.layoutPasses;
+        return stats;
+    }
+
+    /**
+     * Presses a key several times and checks every press against the budget.
+     */
+    void pressKeyWithinBudget(int keyCode, int times, Budget budget) {
+        for (int i = 0; i < times; i++) {
+            KeyPressStats stats = pressKey(keyCode);
+            check(KeyEvent.keyCodeToString(keyCode) + " #" + i + ": " + stats, stats, budget);
+        }
+    }
+
+    /**
+     * Scrolls several times by the distance and checks every step against the budget.
+     */
+    void scrollByWithinBudget(int distance, int times, Budget budget) {
+        for (int i = 0; i < times; i++) {
+            KeyPressStats stats = scrollBy(distance);
+            check("scrollBy(" + distance + ") #" + i + ": " + stats, stats, budget);
+        }
+    }
+
+    /**
+     * Presses a key several times without checking, to fill the view pool
+     * and warm up the code paths.
+     */
+    void warmUp(int keyCode, int times) {
+        for (int i = 0; i < times; i++) {
+            pressKey(keyCode);
+        }
+    }
+
+    /**
+     * Scrolls several times by the distance without checking.
+     */
+    void warmUpScroll(int distance, int times) {
+        for (int i = 0; i < times; i++) {
+            scrollBy(distance);
+        }
+    }
+
+    private static void check(String label, KeyPressStats stats, Budget budget) {
+        check(label, "creates", stats.creates, budget.maxCreates);
+        check(label, "binds", stats.binds, budget.maxBinds);
+        check(label, "recycles", stats.recycles, budget.maxRecycles);
+        check(label, "measures", stats.measures, budget.maxMeasures);
+        check(label, "layoutPasses", stats.layoutPasses, budget.maxLayoutPasses);
+        check(label, "allocatedBytes", stats.allocatedBytes, budget.maxAllocatedBytes);
+    }
+
+    private static void check(String label, String name, long value, long max) {
+        if (max >= 0 && value > max) {
+            fail(label + " exceeds budget " + name + "=" + max);
+        }
+    }
+
+    /**
+     * Moves the focus the way ViewRootImpl does for an unhandled D-pad key,
+     * Robolectric does not run that part of the input pipeline.
+     */
+    private void moveFocus(int keyCode) {
+        int direction;
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+                direction = View.FOCUS_LEFT;
+                break;
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+                direction = View.FOCUS_RIGHT;
+                break;
+            case KeyEvent.KEYCODE_DPAD_UP:
+                direction = View.FOCUS_UP;
+                break;
+            case KeyEvent.KEYCODE_DPAD_DOWN:
+                direction = View.FOCUS_DOWN;
+                break;
+            default:
+                return;
+        }
+        View focused = mGridView.findFocus();
+        if (focused == null) {
+            return;
+        }
+        View next = focused.focusSearch(direction);
+        if (next != null && next != focused) {
+            next.requestFocus(direction);
+        }
+    }
+
+    private static void drainMainLooper() {
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+
+    private long getAllocatedBytes() {
+        if (mThreadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mThreadBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static final class CountingPresenter extends Presenter {
+
+        int mCreates;
+        int mBinds;
+        int mMeasures;
+
+        CountingPresenter(Context context) {
+            super(context);
+        }
+
+        @Override
+        public View onCreateView() {
+            mCreates++;
+            View view = new View(getContext()) {
+                @Override
+                protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+                    mMeasures++;
+                    super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+                }
+            };
+            view.setFocusable(true);
+            view.setLayoutParams(new ViewGroup.LayoutParams(ITEM_SIZE, ITEM_SIZE));
+            return view;
+        }
+
+        @Override
+        public void onBindViewHolder(ViewHolder viewHolder, Object item) {
+            mBinds++;
+        }
+
+        @Override
+        public void onUnbindViewHolder(ViewHolder viewHolder) {
+        }
+    }
+}
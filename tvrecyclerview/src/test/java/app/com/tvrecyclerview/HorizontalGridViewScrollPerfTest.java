@@ -0,0 +1,64 @@
+package app.com.tvrecyclerview;
+
+import android.view.KeyEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Scroll-performance budgets of {@link HorizontalGridView} for D-pad navigation.
+ * A 1920px wide grid of 300px items shows about seven columns, so scrolling by
+ * one column brings in at most one new column per key press.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class HorizontalGridViewScrollPerfTest {
+
+    private static final int ROWS = 2;
+
+    private static final int ITEM_COUNT = 2000;
+
+    private GridScrollHarness mHarness;
+
+    @Before
+    public void setUp() {
+        mHarness = GridScrollHarness.create(true, ROWS, ITEM_COUNT);
+    }
+
+    @Test
+    public void dpadRight_staysWithinBudget() {
+        mHarness.warmUp(KeyEvent.KEYCODE_DPAD_RIGHT, 20);
+        mHarness.pressKeyWithinBudget(KeyEvent.KEYCODE_DPAD_RIGHT, 50, createBudget());
+    }
+
+    @Test
+    public void dpadLeft_staysWithinBudget() {
+        mHarness.warmUp(KeyEvent.KEYCODE_DPAD_RIGHT, 40);
+        mHarness.pressKeyWithinBudget(KeyEvent.KEYCODE_DPAD_LEFT, 20, createBudget());
+    }
+
+    @Test
+    public void dpadDown_withinColumn_staysWithinBudget() {
+        mHarness.warmUp(KeyEvent.KEYCODE_DPAD_RIGHT, 10);
+        GridScrollHarness.Budget budget = createBudget();
+        // moving inside a column does not bring in new items
+        budget.maxCreates = 0;
+        budget.maxBinds = 0;
+        mHarness.pressKeyWithinBudget(KeyEvent.KEYCODE_DPAD_DOWN, 1, budget);
+    }
+
+    private static GridScrollHarness.Budget createBudget() {
+        GridScrollHarness.Budget budget = new GridScrollHarness.Budget();
+        // one new column plus one prefetched column
+        budget.maxCreates = ROWS * 2;
+        budget.maxBinds = ROWS * 2;
+        budget.maxRecycles = ROWS * 2;
+        budget.maxMeasures = ROWS * 4;
+        budget.maxLayoutPasses = 1;
+        budget.maxAllocatedBytes = 2 * 1024 * 1024;
+        return budget;
+    }
+}
@@ -0,0 +1,134 @@
+package app.com.tvrecyclerview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a row of {@link ListRowPresenter} shows again where it was left after
+ * its view has been recycled and bound again.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ListRowPresenterStateTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    private static final int ITEM_SIZE = 300;
+
+    private static final int SELECTED_POSITION = 40;
+
+    private ListRowPresenter mPresenter;
+
+    private ListRowPresenter.ViewHolder mHolder;
+
+    private RecordingPresenter mItemPresenter;
+
+    private GridObjectAdapter mAdapter;
+
+    private ListRow mRow;
+
+    /**
+     * Records the positions of the bound items.
+     */
+    private static final class RecordingPresenter extends Presenter {
+
+        final List<Integer> mBoundPositions = new ArrayList<>();
+
+        RecordingPresenter(Context context) {
+            super(context);
+        }
+
+        @Override
+        public View onCreateView() {
+            View view = new View(getContext());
+            view.setFocusable(true);
+            view.setLayoutParams(new ViewGroup.LayoutParams(ITEM_SIZE, ITEM_SIZE));
+            return view;
+        }
+
+        @Override
+        public void onBindViewHolder(ViewHolder viewHolder, Object item) {
+            mBoundPositions.add(((RowItem) item).getPos());
+        }
+
+        @Override
+        public void onUnbindViewHolder(ViewHolder viewHolder) {
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        FrameLayout root = new FrameLayout(activity);
+        activity.setContentView(root);
+        mPresenter = new ListRowPresenter(activity);
+        mPresenter.setRowHeight(ITEM_SIZE);
+        mHolder = (ListRowPresenter.ViewHolder) mPresenter.onCreateViewHolder(root);
+        root.addView(mHolder.view, new FrameLayout.LayoutParams(1920, ITEM_SIZE));
+
+        mItemPresenter = new RecordingPresenter(activity);
+        mAdapter = new GridObjectAdapter(mItemPresenter);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            RowItem item = new RowItem();
+            item.setPos(i);
+            mAdapter.add(item);
+        }
+        mRow = new ListRow(1, mAdapter);
+        mPresenter.onBindViewHolder(mHolder, mRow);
+        drainMainLooper();
+        mHolder.getGridView().setSelectedPosition(SELECTED_POSITION);
+        drainMainLooper();
+    }
+
+    @Test
+    public void reboundRow_comesBackWithOffsetAndFocus() {
+        HorizontalGridView gridView = mHolder.getGridView();
+        View first = gridView.getChildAt(0);
+        int firstPosition = gridView.getChildAdapterPosition(first);
+        int firstLeft = first.getLeft();
+        assertTrue("the row has not scrolled", firstPosition > 0);
+
+        mPresenter.onUnbindViewHolder(mHolder);
+        mItemPresenter.mBoundPositions.clear();
+        mPresenter.onBindViewHolder(mHolder, mRow);
+        drainMainLooper();
+
+        assertEquals(SELECTED_POSITION, gridView.getSelectedPosition());
+        first = gridView.getChildAt(0);
+        assertEquals(firstPosition, gridView.getChildAdapterPosition(first));
+        assertEquals(firstLeft, first.getLeft());
+        assertTrue("the row is laid out from its first item",
+                !mItemPresenter.mBoundPositions.contains(0));
+    }
+
+    @Test
+    public void focusOfRemovedItem_isClampedToLastItem() {
+        mPresenter.onUnbindViewHolder(mHolder);
+        mAdapter.removeRange(10, ITEM_COUNT - 10);
+        mPresenter.onBindViewHolder(mHolder, mRow);
+        drainMainLooper();
+
+        assertEquals(9, mHolder.getGridView().getSelectedPosition());
+    }
+
+    private static void drainMainLooper() {
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+}
@@ -0,0 +1,169 @@
+package app.com.tvrecyclerview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the placeholders and the dropped pages of {@link PagedGridObjectAdapter}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class PagedGridObjectAdapterTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final int ROWS = 2;
+
+    /**
+     * Keeps the loads pending until the test completes them.
+     */
+    private static class PendingLoader extends PagedGridObjectAdapter.PageLoader {
+        final List<PagedGridObjectAdapter.PageCallback> mCallbacks = new ArrayList<>();
+        final List<Integer> mStarts = new ArrayList<>();
+
+        @Override
+        public void loadPage(int startPosition, int itemCount,
+                             PagedGridObjectAdapter.PageCallback callback) {
+            mStarts.add(startPosition);
+            mCallbacks.add(callback);
+        }
+
+        void completeAll() {
+            for (int i = 0; i < mCallbacks.size(); i++) {
+                List<RowItem> items = new ArrayList<>();
+                for (int j = 0; j < PAGE_SIZE; j++) {
+                    RowItem item = new RowItem();
+                    item.setPos(mStarts.get(i) + j);
+                    items.add(item);
+                }
+                mCallbacks.get(i).onPageLoaded(items);
+            }
+            mCallbacks.clear();
+            mStarts.clear();
+            ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        }
+    }
+
+    /**
+     * Lays out each placeholder in its cell of a grid of two rows.
+     */
+    private static class CellLoader extends PendingLoader {
+        @Override
+        public void onBindPlaceholder(int position, RowItem placeholder) {
+            placeholder.setX(position / ROWS);
+            placeholder.setY(position % ROWS);
+            placeholder.setWidth(1);
+            placeholder.setHeight(1);
+        }
+    }
+
+    private static PagedGridObjectAdapter createAdapter(PendingLoader loader, int totalSize) {
+        return new PagedGridObjectAdapter(new SinglePresenterSelector(null), loader,
+                totalSize, PAGE_SIZE);
+    }
+
+    @Test
+    public void placeholder_isReusedForSamePosition() {
+        PagedGridObjectAdapter adapter = createAdapter(new PendingLoader(), 100);
+        RowItem placeholder = adapter.get(3);
+        assertTrue(PagedGridObjectAdapter.isPlaceholder(placeholder));
+        assertSame(placeholder, adapter.get(3));
+        assertEquals(3, placeholder.getPos());
+    }
+
+    @Test
+    public void placeholders_areLaidOutByLoader_inGridWithColumns() {
+        PagedGridObjectAdapter adapter = createAdapter(new CellLoader(), 100);
+        adapter.setGridStyle(0, 0, ROWS, 1f);
+        assertEquals(2, adapter.getItemLeftIndex(5));
+        assertEquals(1, adapter.getItemTopIndex(5));
+        RowItem placeholder = adapter.get(7);
+        assertEquals(3, placeholder.getX());
+        assertEquals(1, placeholder.getY());
+    }
+
+    @Test
+    public void placeholderWithoutLayout_inGridWithColumns_throws() {
+        PagedGridObjectAdapter adapter = createAdapter(new PendingLoader(), 100);
+        adapter.setGridStyle(0, 0, ROWS, 1f);
+        try {
+            adapter.get(0);
+            fail("placeholders without a layout would overlap");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void droppedPage_notifiesItsRange() {
+        PendingLoader loader = new PendingLoader();
+        PagedGridObjectAdapter adapter = createAdapter(loader, 100);
+        adapter.setPrefetchDistance(0);
+        adapter.setMaxLoadedPages(3);
+        for (int page = 0; page < 3; page++) {
+            adapter.onItemBound(page * PAGE_SIZE);
+        }
+        loader.completeAll();
+
+        final List<int[]> changes = new ArrayList<>();
+        adapter.registerObserver(new GridObjectAdapter.DataObserver() {
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                changes.add(new int[] {positionStart, itemCount});
+            }
+        });
+        adapter.onItemBound(3 * PAGE_SIZE);
+        loader.completeAll();
+
+        assertTrue(adapter.isLoaded(3 * PAGE_SIZE));
+        assertTrue(!adapter.isLoaded(0));
+        assertTrue(PagedGridObjectAdapter.isPlaceholder(adapter.get(0)));
+        boolean droppedNotified = false;
+        for (int[] change : changes) {
+            droppedNotified |= change[0] == 0 && change[1] == PAGE_SIZE;
+        }
+        assertTrue("the dropped page is not notified", droppedNotified);
+    }
+
+    @Test
+    public void get_doesNotLoadPages() {
+        PendingLoader loader = new PendingLoader();
+        PagedGridObjectAdapter adapter = createAdapter(loader, 100);
+        adapter.get(5 * PAGE_SIZE);
+        adapter.getId(6 * PAGE_SIZE);
+        assertTrue(loader.mStarts.isEmpty());
+    }
+
+    @Test
+    public void pageOfAttachedItem_isKept_whileOtherPagesAreBound() {
+        PendingLoader loader = new PendingLoader();
+        PagedGridObjectAdapter adapter = createAdapter(loader, 100);
+        adapter.setPrefetchDistance(0);
+        adapter.setMaxLoadedPages(3);
+        adapter.onItemAttached(3 * PAGE_SIZE + 5);
+        for (int page = 3; page >= 0; page--) {
+            adapter.onItemBound(page * PAGE_SIZE);
+        }
+        loader.completeAll();
+
+        assertTrue(adapter.isLoaded(3 * PAGE_SIZE));
+        assertTrue(!adapter.isLoaded(0));
+
+        // once detached, the pages are kept around the last bound item
+        adapter.onItemDetached(3 * PAGE_SIZE + 5);
+        adapter.onItemBound(0);
+        loader.completeAll();
+        assertTrue(adapter.isLoaded(0));
+        assertTrue(!adapter.isLoaded(3 * PAGE_SIZE));
+    }
+}
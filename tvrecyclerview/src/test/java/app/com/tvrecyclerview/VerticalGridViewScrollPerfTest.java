@@ -0,0 +1,54 @@
+package app.com.tvrecyclerview;
+
+import android.view.KeyEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Scroll-performance budgets of {@link VerticalGridView} for D-pad navigation.
+ * A 1080px high grid of 300px items shows about four rows, so scrolling by
+ * one row brings in at most one new row per key press.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class VerticalGridViewScrollPerfTest {
+
+    private static final int COLUMNS = 5;
+
+    private static final int ITEM_COUNT = 2000;
+
+    private GridScrollHarness mHarness;
+
+    @Before
+    public void setUp() {
+        mHarness = GridScrollHarness.create(false, COLUMNS, ITEM_COUNT);
+    }
+
+    @Test
+    public void dpadDown_staysWithinBudget() {
+        mHarness.warmUp(KeyEvent.KEYCODE_DPAD_DOWN, 10);
+        mHarness.pressKeyWithinBudget(KeyEvent.KEYCODE_DPAD_DOWN, 50, createBudget());
+    }
+
+    @Test
+    public void dpadUp_staysWithinBudget() {
+        mHarness.warmUp(KeyEvent.KEYCODE_DPAD_DOWN, 30);
+        mHarness.pressKeyWithinBudget(KeyEvent.KEYCODE_DPAD_UP, 20, createBudget());
+    }
+
+    private static GridScrollHarness.Budget createBudget() {
+        GridScrollHarness.Budget budget = new GridScrollHarness.Budget();
+        // one new row plus one prefetched row
+        budget.maxCreates = COLUMNS * 2;
+        budget.maxBinds = COLUMNS * 2;
+        budget.maxRecycles = COLUMNS * 2;
+        budget.maxMeasures = COLUMNS * 4;
+        budget.maxLayoutPasses = 1;
+        budget.maxAllocatedBytes = 2 * 1024 * 1024;
+        return budget;
+    }
+}